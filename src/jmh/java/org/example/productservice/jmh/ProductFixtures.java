@@ -0,0 +1,66 @@
+package org.example.productservice.jmh;
+
+import org.example.productservice.dto.ProductRequest;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.model.entity.Product;
+import org.example.productservice.model.enums.Category;
+import org.example.productservice.service.mapper.ProductMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+final class ProductFixtures {
+
+    private ProductFixtures() {
+    }
+
+    static Product product(long id) {
+        return Product.builder()
+                .id(id)
+                .name("product-" + id)
+                .description("A compact wireless device number " + id + " with a long battery life")
+                .price(BigDecimal.valueOf(1999 + id % 1000, 2))
+                .category(Category.values()[(int) (id % Category.values().length)])
+                .amount((int) (id % 100))
+                .version(id % 7)
+                .build();
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            products.add(product(id));
+        }
+        return products;
+    }
+
+    static Page<ProductResponse> page(int size) {
+        List<ProductResponse> content = products(size).stream()
+                .map(ProductMapper::toResponse)
+                .toList();
+        return new PageImpl<>(content, PageRequest.of(0, size), 1_000_000);
+    }
+
+    static ProductRequest validRequest() {
+        return ProductRequest.builder()
+                .name("product-1")
+                .description("A compact wireless device")
+                .price(BigDecimal.valueOf(1999, 2))
+                .category(Category.HEADPHONES)
+                .amount(10)
+                .build();
+    }
+
+    static ProductRequest invalidRequest() {
+        return ProductRequest.builder()
+                .name(" ")
+                .description("x".repeat(600))
+                .price(BigDecimal.valueOf(-1))
+                .amount(-5)
+                .build();
+    }
+}
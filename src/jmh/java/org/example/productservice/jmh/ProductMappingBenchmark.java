@@ -0,0 +1,52 @@
+package org.example.productservice.jmh;
+
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.model.entity.Product;
+import org.example.productservice.service.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private Product product;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        product = ProductFixtures.product(42);
+        products = ProductFixtures.products(pageSize);
+    }
+
+    @Benchmark
+    public ProductResponse toResponse() {
+        return ProductMapper.toResponse(product);
+    }
+
+    @Benchmark
+    public List<ProductResponse> toResponsePage() {
+        return products.stream()
+                .map(ProductMapper::toResponse)
+                .toList();
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.productservice.jmh;
+
+import org.example.productservice.dto.ProductPage;
+import org.example.productservice.dto.ProductResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectWriter productWriter;
+    private ObjectWriter pageWriter;
+    private ProductResponse product;
+    private ProductPage page;
+
+    @Setup
+    public void setUp() {
+        JsonMapper mapper = JsonMapper.builder().build();
+        productWriter = mapper.writerFor(ProductResponse.class);
+        pageWriter = mapper.writerFor(ProductPage.class);
+        product = ProductFixtures.page(1).getContent().getFirst();
+        // Pages are rendered through ProductPage, the same DTO the web layer serializes
+        page = ProductPage.of(ProductFixtures.page(pageSize));
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() {
+        return productWriter.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] serializePage() {
+        return pageWriter.writeValueAsBytes(page);
+    }
+}
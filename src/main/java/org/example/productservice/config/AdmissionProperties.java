@@ -0,0 +1,21 @@
+package org.example.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("product-service.admission")
+public record AdmissionProperties(
+        @DefaultValue("true")
+        boolean enabled,
+        @DefaultValue("0")
+        int permits,
+        @DefaultValue("1")
+        int readReserve,
+        @DefaultValue("100ms")
+        Duration maxWait,
+        @DefaultValue("1s")
+        Duration retryAfter
+) {
+}
@@ -0,0 +1,31 @@
+package org.example.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("product-service.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true")
+        boolean enabled,
+        @DefaultValue
+        Limit read,
+        @DefaultValue
+        Limit write
+) {
+
+    public record Limit(
+            @DefaultValue("20")
+            int initialLimit,
+            @DefaultValue("1")
+            int minLimit,
+            @DefaultValue("200")
+            int maxLimit,
+            @DefaultValue("0.2")
+            double smoothing,
+            @DefaultValue("600")
+            int longWindow,
+            @DefaultValue("0.9")
+            double backoffRatio
+    ) {
+    }
+}
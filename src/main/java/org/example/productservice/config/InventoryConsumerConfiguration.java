@@ -0,0 +1,47 @@
+package org.example.productservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "product-service.inventory", name = "enabled", matchIfMissing = true)
+public class InventoryConsumerConfiguration {
+
+    @Bean
+    NewTopic inventoryTopic(InventoryProperties properties) {
+        return TopicBuilder.name(properties.topic())
+                .partitions(properties.partitions())
+                .build();
+    }
+
+    @Bean
+    NewTopic inventoryDeadLetterTopic(InventoryProperties properties) {
+        // same partition count, so a dead letter keeps the partition of its record
+        return TopicBuilder.name(properties.deadLetterTopic())
+                .partitions(properties.partitions())
+                .build();
+    }
+
+    // Unparseable messages are skipped by the listener. A record the database rejects is reported by its index,
+    // so the records before it are committed and only that record is retried with backoff for a bounded time
+    // and then parked on the dead letter topic for replay instead of stalling the partition forever
+    @Bean
+    CommonErrorHandler kafkaErrorHandler(InventoryProperties properties,
+                                         KafkaTemplate<String, String> kafkaTemplate) {
+        ExponentialBackOff backOff = new ExponentialBackOff(200, 2.0);
+        backOff.setMaxInterval(10_000);
+        backOff.setMaxElapsedTime(properties.retryMaxElapsed().toMillis());
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, e) -> new TopicPartition(properties.deadLetterTopic(), record.partition()));
+        return new DefaultErrorHandler(recoverer, backOff);
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("product-service.inventory")
+public record InventoryProperties(
+        @DefaultValue("true")
+        boolean enabled,
+        @DefaultValue("product-inventory-updates")
+        String topic,
+        @DefaultValue("product-service-inventory")
+        String groupId,
+        @DefaultValue("6")
+        int partitions,
+        @DefaultValue("product-inventory-updates-dlt")
+        String deadLetterTopic,
+        // a batch still failing after this long is parked on the dead letter topic so the partition moves on
+        @DefaultValue("5m")
+        Duration retryMaxElapsed
+) {
+}
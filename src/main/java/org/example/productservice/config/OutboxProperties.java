@@ -0,0 +1,19 @@
+package org.example.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("product-service.outbox")
+public record OutboxProperties(
+        @DefaultValue("product-events")
+        String topic,
+        @DefaultValue("500")
+        int batchSize,
+        @DefaultValue("10s")
+        Duration sendTimeout,
+        @DefaultValue("7d")
+        Duration retention
+) {
+}
@@ -0,0 +1,11 @@
+package org.example.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("product-service.bulk")
+public record ProductBulkProperties(
+        @DefaultValue("500")
+        int chunkSize
+) {
+}
@@ -0,0 +1,19 @@
+package org.example.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("product-service.cache")
+public record ProductCacheProperties(
+        @DefaultValue("10000")
+        long maximumSize,
+        @DefaultValue("10m")
+        Duration expireAfterWrite,
+        @DefaultValue("100000")
+        long missingMaximumSize,
+        @DefaultValue("30s")
+        Duration missingExpireAfterWrite
+) {
+}
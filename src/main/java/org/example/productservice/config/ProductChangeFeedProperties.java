@@ -0,0 +1,11 @@
+package org.example.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("product-service.change-feed")
+public record ProductChangeFeedProperties(
+        @DefaultValue("10000")
+        int maxLimit
+) {
+}
@@ -0,0 +1,28 @@
+package org.example.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("product-service.count")
+public record ProductCountProperties(
+        @DefaultValue("EXACT")
+        Mode mode,
+        @DefaultValue("30s")
+        Duration refreshAfterWrite,
+        @DefaultValue("1000")
+        long maximumSize
+) {
+
+    public enum Mode {
+        // count(*) on every page request
+        EXACT,
+        // no total at all, the page only tells whether a next one exists
+        NONE,
+        // pg_class.reltuples for the whole catalog, cached counts for filtered pages
+        ESTIMATED,
+        // counts per filter refreshed in the background
+        CACHED
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Set;
+
+@ConfigurationProperties("product-service.page-cache")
+public record ProductPageCacheProperties(
+        @DefaultValue("true")
+        boolean enabled,
+        // pages 0 .. max-page - 1 of the unfiltered catalog are cached
+        @DefaultValue("5")
+        int maxPage,
+        @DefaultValue({"10", "20", "50"})
+        Set<Integer> sizes,
+        @DefaultValue("5s")
+        Duration maxAge,
+        // bounds staleness from writes on other instances, whose change events never reach this cache
+        @DefaultValue("5s")
+        Duration expireAfterWrite,
+        @DefaultValue("100")
+        long maximumSize
+) {
+}
@@ -0,0 +1,20 @@
+package org.example.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("product-service.read")
+public record ProductReadProperties(
+        @DefaultValue("PROJECTION")
+        Mode byId,
+        @DefaultValue("PROJECTION")
+        Mode page,
+        @DefaultValue("PROJECTION")
+        Mode keyset
+) {
+
+    public enum Mode {
+        ENTITY,
+        PROJECTION
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("product-service.single-flight")
+public record SingleFlightProperties(
+        @DefaultValue("true")
+        boolean enabled,
+        @DefaultValue("2s")
+        Duration timeout
+) {
+}
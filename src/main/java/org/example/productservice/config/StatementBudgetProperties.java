@@ -0,0 +1,17 @@
+package org.example.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("product-service.statement-budget")
+public record StatementBudgetProperties(
+        @DefaultValue("true")
+        boolean enabled,
+        @DefaultValue("10")
+        int maxStatements,
+        @DefaultValue("0.1")
+        double sampleRate,
+        @DefaultValue("5")
+        int loggedStatements
+) {
+}
@@ -0,0 +1,23 @@
+package org.example.productservice.config;
+
+import org.example.productservice.model.enums.Category;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Set;
+
+@ConfigurationProperties("product-service.stock.coalescing")
+public record StockCoalescingProperties(
+        @DefaultValue("false")
+        boolean enabled,
+        @DefaultValue("5ms")
+        Duration window,
+        @DefaultValue("5s")
+        Duration timeout,
+        @DefaultValue
+        Set<Category> categories,
+        @DefaultValue
+        Set<Long> productIds
+) {
+}
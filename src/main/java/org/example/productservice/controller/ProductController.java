@@ -7,17 +7,40 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.example.productservice.controller.advice.GlobalExceptionHandler;
+import org.example.productservice.dto.BulkProductResponse;
+import org.example.productservice.dto.ProductAggregates;
+import org.example.productservice.dto.ProductBatchRequest;
+import org.example.productservice.dto.ProductBatchResponse;
+import org.example.productservice.dto.ProductChange;
+import org.example.productservice.dto.ProductCursorPage;
+import org.example.productservice.dto.ProductFilter;
+import org.example.productservice.dto.ProductPage;
 import org.example.productservice.dto.ProductRequest;
 import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.dto.StockRequest;
+import org.example.productservice.dto.StockResponse;
+import org.example.productservice.model.enums.Category;
 import org.example.productservice.service.ProductService;
-import org.springframework.data.domain.Page;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
+
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
@@ -33,24 +56,215 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
 
 
     @GetMapping(value = "/")
-    @Operation(summary = "Find page of products")
+    @Operation(
+            summary = "Find page of products",
+            description = "Optionally filtered by category, price range, in-stock only and case-sensitive name prefix. " +
+                    "Depending on the configured count mode the total may be missing or flagged as approximate."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Product page found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ProductPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid filter",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ValidationErrorResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<ProductPage> findPageOfProducts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @Valid @ParameterObject ProductFilter filter
+    ) {
+        // A stable order keeps a product on the same page while it changes
+        Pageable pageable = PageRequest.of(page, size, Sort.by("id"));
+        ProductPage products = productService.findProductPage(filter, pageable);
+        Long total = products.page().totalElements();
+        return ResponseEntity.ok()
+                .eTag(ProductETags.of(products.content(), page, size, total == null ? -1 : total, ProductETags.of(filter)))
+                .body(products);
+    }
+
+    @GetMapping(value = "/", params = "after")
+    @Operation(
+            summary = "Find page of products after cursor",
+            description = "Keyset pagination ordered by id without total count. Pass an empty 'after' for the first page " +
+                    "and the returned 'next' cursor for the following ones."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Product page found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ProductCursorPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor or size",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<ProductCursorPage> findPageOfProductsAfter(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(500) int size
+    ) {
+        ProductCursorPage products = productService.findPageOfProductsAfter(after, size);
+        return ResponseEntity.ok()
+                .eTag(ProductETags.of(products.content(), size))
+                .body(products);
+    }
+
+    @GetMapping(value = "/search")
+    @Operation(
+            summary = "Full-text search of products",
+            description = "Matches words in name and description, ordered by relevance. Pass the returned 'next' " +
+                    "cursor as 'after' to fetch the following page."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Search results found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ProductCursorPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor, size or category",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<ProductCursorPage> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) Category category,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(500) int size
+    ) {
+        return ResponseEntity.ok(productService.searchProducts(q, category, after, size));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all products as NDJSON stream ordered by id")
     @ApiResponse(
             responseCode = "200",
-            description = "Product page found",
+            description = "Products exported",
             content = @Content(
-                    mediaType = "application/json",
-                    schema = @Schema(implementation = Page.class)
+                    mediaType = "application/x-ndjson",
+                    schema = @Schema(implementation = ProductResponse.class)
             )
     )
-    public ResponseEntity<Page<ProductResponse>> findPageOfProducts(
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writerFor(ProductResponse.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                productService.exportProducts(writer::write);
+                writer.flush();
+                outputStream.write('\n');
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Stream product changes after a watermark as NDJSON",
+            description = "Returns created and updated products ordered by change sequence. Pass the 'changeSeq' of " +
+                    "the last received line as 'after' to continue; an empty response means the client is caught up."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Changes streamed",
+            content = @Content(
+                    mediaType = "application/x-ndjson",
+                    schema = @Schema(implementation = ProductChange.class)
+            )
+    )
+    public ResponseEntity<StreamingResponseBody> exportChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "1000") int limit
     ) {
-        Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(productService.findPageOfProducts(pageable));
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writerFor(ProductChange.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                productService.exportChanges(after, limit, writer::write);
+                writer.flush();
+                outputStream.write('\n');
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/aggregates")
+    @Operation(
+            summary = "Product counts and stock value per category",
+            description = "Served from memory and updated on every change; 'reconciledAt' is the last full " +
+                    "recount against the database."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Aggregates found",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ProductAggregates.class)
+            )
+    )
+    public ResponseEntity<ProductAggregates> findAggregates() {
+        return ResponseEntity.ok(productService.findAggregates());
+    }
+
+    @GetMapping(value = "/batch")
+    @Operation(
+            summary = "Find products by a list of ids",
+            description = "Returns found products in request order, duplicates removed, and lists the ids that do not " +
+                    "exist instead of failing. Accepts up to 500 ids as ids=1,2,3 or repeated ids parameters."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Products resolved",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ProductBatchResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Missing, malformed or too many ids",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ValidationErrorResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<ProductBatchResponse> findProductsByIds(@Valid @ParameterObject ProductBatchRequest request) {
+        return ResponseEntity.ok(productService.findProductsByIds(request.ids()));
     }
 
     @GetMapping(value = "/{id}")
@@ -74,7 +288,10 @@ public class ProductController {
             )
     })
     public ResponseEntity<ProductResponse> findProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.findProductById(id));
+        ProductResponse product = productService.findProductById(id);
+        return ResponseEntity.ok()
+                .eTag(ProductETags.of(product))
+                .body(product);
     }
 
     @PostMapping(value = "/")
@@ -101,4 +318,168 @@ public class ProductController {
     public ResponseEntity<ProductResponse> createProduct(@Valid @RequestBody ProductRequest productRequest) {
         return ResponseEntity.status(HttpStatus.CREATED).body(productService.createProduct(productRequest));
     }
+
+    @PutMapping(value = "/{id}")
+    @Operation(summary = "Update product", description = "Pass the product ETag in If-Match to reject concurrent updates")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Product updated",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ProductResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Data validation error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ValidationErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Product not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Product was modified concurrently",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<ProductResponse> updateProduct(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody ProductRequest productRequest
+    ) {
+        ProductResponse product = productService.updateProduct(id, productRequest, ProductETags.version(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(ProductETags.of(product))
+                .body(product);
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create products from JSON array")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Products processed, see per-item results",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BulkProductResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed request body",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<BulkProductResponse> createProducts(@RequestBody List<ProductRequest> productRequests) {
+        return ResponseEntity.ok(productService.createProducts(productRequests.iterator()));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Create products from NDJSON stream")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Products processed, see per-item results; a malformed line ends the stream",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BulkProductResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed request body",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<BulkProductResponse> createProductsFromStream(InputStream body) {
+        try (MappingIterator<ProductRequest> productRequests = objectMapper.readerFor(ProductRequest.class)
+                .readValues(body)) {
+            return ResponseEntity.ok(productService.createProducts(productRequests));
+        }
+    }
+
+    @PostMapping(value = "/{id}/stock/reserve")
+    @Operation(summary = "Reserve product stock")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stock reserved",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = StockResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Product not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Insufficient stock",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<StockResponse> reserveStock(@PathVariable Long id,
+                                                      @Valid @RequestBody StockRequest stockRequest) {
+        return ResponseEntity.ok(productService.reserveStock(id, stockRequest.quantity()));
+    }
+
+    @PostMapping(value = "/{id}/stock/release")
+    @Operation(summary = "Release reserved product stock")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stock released",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = StockResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Product not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Stock limit exceeded",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<StockResponse> releaseStock(@PathVariable Long id,
+                                                      @Valid @RequestBody StockRequest stockRequest) {
+        return ResponseEntity.ok(productService.releaseStock(id, stockRequest.quantity()));
+    }
 }
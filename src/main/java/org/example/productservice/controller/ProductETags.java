@@ -0,0 +1,56 @@
+package org.example.productservice.controller;
+
+import org.example.productservice.dto.ProductFilter;
+import org.example.productservice.dto.ProductResponse;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+final class ProductETags {
+
+    private ProductETags() {
+    }
+
+    static String of(ProductResponse product) {
+        return "\"" + product.version() + "\"";
+    }
+
+    static String of(List<ProductResponse> products, long... pageAttributes) {
+        long hash = 1125899906842597L;
+        for (long attribute : pageAttributes) {
+            hash = 31 * hash + attribute;
+        }
+        for (ProductResponse product : products) {
+            hash = 31 * hash + product.id();
+            hash = 31 * hash + product.version();
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    // Built from a canonical string because ProductFilter.hashCode depends on the enum's identity hash, which
+    // differs between JVMs, and on the scale of the prices
+    static long of(ProductFilter filter) {
+        return String.join("|",
+                filter.category() == null ? "" : filter.category().name(),
+                canonical(filter.minPrice()),
+                canonical(filter.maxPrice()),
+                String.valueOf(filter.isInStockOnly()),
+                filter.namePrefix() == null ? "" : filter.namePrefix()
+        ).hashCode();
+    }
+
+    static String version(String eTag) {
+        if (eTag == null || eTag.equals("*")) {
+            return null;
+        }
+        String version = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        if (version.length() >= 2 && version.startsWith("\"") && version.endsWith("\"")) {
+            version = version.substring(1, version.length() - 1);
+        }
+        return version;
+    }
+
+    private static String canonical(BigDecimal price) {
+        return price == null ? "" : price.stripTrailingZeros().toPlainString();
+    }
+}
@@ -1,30 +1,74 @@
 package org.example.productservice.controller.advice;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.exception.AdmissionRejectedException;
+import org.example.productservice.exception.InsufficientStockException;
+import org.example.productservice.exception.InvalidCursorException;
 import org.example.productservice.exception.ProductNotFoundException;
+import org.example.productservice.exception.ProductVersionMismatchException;
+import org.example.productservice.exception.ServiceUnavailableException;
+import org.example.productservice.exception.StockLimitExceededException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import tools.jackson.core.JacksonException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+@Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final Counter validationCounter;
+    private final Counter productNotFoundCounter;
+    private final Counter versionMismatchCounter;
+    private final Counter dataIntegrityCounter;
+    private final Counter insufficientStockCounter;
+    private final Counter stockLimitCounter;
+    private final Counter invalidCursorCounter;
+    private final Counter malformedBodyCounter;
+    private final Counter unavailableCounter;
+    private final Counter admissionRejectedCounter;
+    private final Counter internalErrorCounter;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.validationCounter = exceptionCounter(meterRegistry, "validation");
+        this.productNotFoundCounter = exceptionCounter(meterRegistry, "not_found");
+        this.versionMismatchCounter = exceptionCounter(meterRegistry, "version_mismatch");
+        this.dataIntegrityCounter = exceptionCounter(meterRegistry, "data_integrity");
+        this.insufficientStockCounter = exceptionCounter(meterRegistry, "insufficient_stock");
+        this.stockLimitCounter = exceptionCounter(meterRegistry, "stock_limit");
+        this.invalidCursorCounter = exceptionCounter(meterRegistry, "invalid_cursor");
+        this.malformedBodyCounter = exceptionCounter(meterRegistry, "malformed_body");
+        this.unavailableCounter = exceptionCounter(meterRegistry, "unavailable");
+        this.admissionRejectedCounter = exceptionCounter(meterRegistry, "admission_rejected");
+        this.internalErrorCounter = exceptionCounter(meterRegistry, "internal");
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<ValidationErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
+        validationCounter.increment();
         ex.printStackTrace();
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach((error) -> {
@@ -42,9 +86,43 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ValidationErrorResponse> handleMethodValidationException(
+            HandlerMethodValidationException ex) {
+        validationCounter.increment();
+        Map<String, String> errors = new HashMap<>();
+        ex.getParameterValidationResults().forEach(result -> result.getResolvableErrors().forEach(error ->
+                errors.put(result.getMethodParameter().getParameterName(), error.getDefaultMessage())));
+
+        ValidationErrorResponse response = new ValidationErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Validation failed",
+                LocalDateTime.now(),
+                errors
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex,
+                                                            WebRequest request) {
+        validationCounter.increment();
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid value for parameter '" + ex.getName() + "'",
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
     @ExceptionHandler(ProductNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleProductNotFound(ProductNotFoundException ex, WebRequest request) {
-        ex.printStackTrace();
+        productNotFoundCounter.increment();
+        log.atDebug()
+                .addKeyValue("productId", ex.getProductId())
+                .log("Product not found");
         ErrorResponse response = new ErrorResponse(
                 HttpStatus.NOT_FOUND.value(),
                 ex.getMessage(),
@@ -55,8 +133,116 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    @ExceptionHandler({ProductVersionMismatchException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponse> handleVersionMismatch(RuntimeException ex, WebRequest request) {
+        versionMismatchCounter.increment();
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Product was modified concurrently",
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex,
+                                                                      WebRequest request) {
+        dataIntegrityCounter.increment();
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Product conflicts with existing data",
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorResponse> handleInsufficientStock(InsufficientStockException ex, WebRequest request) {
+        insufficientStockCounter.increment();
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(StockLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleStockLimitExceeded(StockLimitExceededException ex, WebRequest request) {
+        stockLimitCounter.increment();
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException ex, WebRequest request) {
+        invalidCursorCounter.increment();
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler({HttpMessageNotReadableException.class, JacksonException.class})
+    public ResponseEntity<ErrorResponse> handleMalformedBody(Exception ex, WebRequest request) {
+        malformedBodyCounter.increment();
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Malformed request body",
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(ServiceUnavailableException ex, WebRequest request) {
+        unavailableCounter.increment();
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleAdmissionRejected(AdmissionRejectedException ex, WebRequest request) {
+        admissionRejectedCounter.increment();
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex, WebRequest request) {
+        internalErrorCounter.increment();
         ex.printStackTrace();
         ErrorResponse response = new ErrorResponse(
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
@@ -68,6 +254,12 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
 
+    private static Counter exceptionCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("product.exceptions")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
     public record ErrorResponse(int status, String message, LocalDateTime timestamp, String path){}
 
     public record ValidationErrorResponse(int status, String message, LocalDateTime timestamp,
@@ -0,0 +1,13 @@
+package org.example.productservice.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record BulkProductResponse(
+        int created,
+        int failed,
+        List<BulkProductResult> results
+) {
+}
@@ -0,0 +1,40 @@
+package org.example.productservice.dto;
+
+import lombok.Builder;
+
+import java.util.Map;
+
+@Builder
+public record BulkProductResult(
+        int index,
+        Status status,
+        Long id,
+        Map<String, String> errors
+) {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        CONFLICT
+    }
+
+    public static BulkProductResult created(int index, Long id) {
+        return new BulkProductResult(index, Status.CREATED, id, null);
+    }
+
+    public static BulkProductResult invalid(int index, Map<String, String> errors) {
+        return new BulkProductResult(index, Status.INVALID, null, errors);
+    }
+
+    public static BulkProductResult conflict(int index) {
+        return new BulkProductResult(index, Status.CONFLICT, null, Map.of("name", "must be unique"));
+    }
+
+    public static BulkProductResult rejected(int index) {
+        return new BulkProductResult(index, Status.INVALID, null, Map.of("item", "rejected by a database constraint"));
+    }
+
+    public static BulkProductResult unreadable(int index) {
+        return new BulkProductResult(index, Status.INVALID, null, Map.of("item", "malformed, remaining items were not read"));
+    }
+}
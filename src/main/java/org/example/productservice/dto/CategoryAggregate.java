@@ -0,0 +1,14 @@
+package org.example.productservice.dto;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+@Builder
+public record CategoryAggregate(
+        long products,
+        long units,
+        BigDecimal stockValue,
+        long outOfStock
+) {
+}
@@ -0,0 +1,48 @@
+package org.example.productservice.dto;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Stock is a delta added to the current amount, price is the new absolute price
+@Builder
+public record InventoryUpdate(
+        Long productId,
+        Long stockDelta,
+        BigDecimal price
+) {
+
+    private static final int PRICE_INTEGER_DIGITS = 8;
+    // amount is an int column, a larger single delta can only be a broken producer
+    private static final long MAX_STOCK_DELTA = Integer.MAX_VALUE;
+
+    public boolean isValid() {
+        if (productId == null || (stockDelta == null && price == null)) {
+            return false;
+        }
+        if (stockDelta != null && (stockDelta < -MAX_STOCK_DELTA || stockDelta > MAX_STOCK_DELTA)) {
+            return false;
+        }
+        return price == null || (price.signum() >= 0 && price.precision() - price.scale() <= PRICE_INTEGER_DIGITS);
+    }
+
+    public long stockDeltaOrZero() {
+        return stockDelta == null ? 0 : stockDelta;
+    }
+
+    // Updates must be given in log order: deltas add up as long, so a merged delta may exceed the int range
+    // and is clamped by the database, and the last price wins
+    public static Collection<InventoryUpdate> mergeById(Collection<InventoryUpdate> updates) {
+        Map<Long, InventoryUpdate> merged = new LinkedHashMap<>();
+        for (InventoryUpdate update : updates) {
+            merged.merge(update.productId(), update, (earlier, later) -> new InventoryUpdate(
+                    earlier.productId(),
+                    Math.addExact(earlier.stockDeltaOrZero(), later.stockDeltaOrZero()),
+                    later.price() != null ? later.price() : earlier.price()));
+        }
+        return merged.values();
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.productservice.dto;
+
+import lombok.Builder;
+import org.example.productservice.model.enums.Category;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Builder
+public record ProductAggregates(
+        Map<Category, CategoryAggregate> categories,
+        // Includes products without a category
+        CategoryAggregate total,
+        Instant reconciledAt
+) {
+}
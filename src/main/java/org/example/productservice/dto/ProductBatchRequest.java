@@ -0,0 +1,16 @@
+package org.example.productservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record ProductBatchRequest(
+        @NotEmpty
+        @Size(max = 500)
+        List<@NotNull Long> ids
+) {
+}
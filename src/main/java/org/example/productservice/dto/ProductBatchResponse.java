@@ -0,0 +1,12 @@
+package org.example.productservice.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record ProductBatchResponse(
+        List<ProductResponse> products,
+        List<Long> missing
+) {
+}
@@ -0,0 +1,13 @@
+package org.example.productservice.dto;
+
+import lombok.Builder;
+
+import java.time.Instant;
+
+@Builder
+public record ProductChange(
+        Long changeSeq,
+        Instant updatedAt,
+        ProductResponse product
+) {
+}
@@ -0,0 +1,28 @@
+package org.example.productservice.dto;
+
+import org.example.productservice.exception.InvalidCursorException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+public record ProductCursor(long lastId) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(lastId).array());
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            byte[] bytes = DECODER.decode(token);
+            if (bytes.length != Long.BYTES) {
+                throw new InvalidCursorException(token);
+            }
+            return new ProductCursor(ByteBuffer.wrap(bytes).getLong());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.productservice.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record ProductCursorPage(
+        List<ProductResponse> content,
+        int size,
+        String next
+) {
+}
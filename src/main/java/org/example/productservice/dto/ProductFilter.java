@@ -0,0 +1,37 @@
+package org.example.productservice.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+import org.example.productservice.model.enums.Category;
+
+import java.math.BigDecimal;
+
+@Builder
+public record ProductFilter(
+        Category category,
+        @PositiveOrZero
+        BigDecimal minPrice,
+        @PositiveOrZero
+        BigDecimal maxPrice,
+        Boolean inStock,
+        @Size(min = 1, max = 200)
+        String namePrefix
+) {
+
+    public static final ProductFilter NONE = ProductFilter.builder().build();
+
+    public boolean isInStockOnly() {
+        return Boolean.TRUE.equals(inStock);
+    }
+
+    public boolean isEmpty() {
+        return category == null && minPrice == null && maxPrice == null && !isInStockOnly() && namePrefix == null;
+    }
+
+    @AssertTrue(message = "minPrice must not be greater than maxPrice")
+    public boolean isPriceRangeValid() {
+        return minPrice == null || maxPrice == null || minPrice.compareTo(maxPrice) <= 0;
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.productservice.dto;
+
+import lombok.Builder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+// Same shape as PagedModel, but the totals may be missing or approximate
+@Builder
+public record ProductPage(
+        List<ProductResponse> content,
+        Metadata page
+) {
+
+    public static ProductPage of(Page<ProductResponse> page) {
+        return of(page, page.getTotalElements(), false);
+    }
+
+    // Without an estimate the total is only known on the last page
+    public static ProductPage of(Slice<ProductResponse> slice) {
+        return slice.hasNext() ? of(slice, null, false) : of(slice, seen(slice), false);
+    }
+
+    public static ProductPage of(Slice<ProductResponse> slice, long estimatedTotal) {
+        if (!slice.hasNext()) {
+            return of(slice);
+        }
+        // A stale estimate must not claim fewer products than the pages already proved to exist
+        return of(slice, Math.max(estimatedTotal, seen(slice) + 1), true);
+    }
+
+    private static ProductPage of(Slice<ProductResponse> slice, Long totalElements, boolean approximate) {
+        int size = slice.getSize();
+        return ProductPage.builder()
+                .content(slice.getContent())
+                .page(Metadata.builder()
+                        .size(size)
+                        .number(slice.getNumber())
+                        .totalElements(totalElements)
+                        .totalPages(totalElements == null || size == 0 ? null : (totalElements + size - 1) / size)
+                        .approximate(approximate)
+                        .hasNext(slice.hasNext())
+                        .build())
+                .build();
+    }
+
+    private static long seen(Slice<ProductResponse> slice) {
+        return (long) slice.getNumber() * slice.getSize() + slice.getNumberOfElements();
+    }
+
+    @Builder
+    public record Metadata(
+            int size,
+            long number,
+            Long totalElements,
+            Long totalPages,
+            boolean approximate,
+            boolean hasNext
+    ) {
+    }
+}
@@ -15,6 +15,7 @@ public record ProductRequest(
         String description,
         @NotNull
         @Positive
+        @Digits(integer = 8, fraction = 2)
         BigDecimal price,
         Category category,
         @PositiveOrZero
@@ -13,6 +13,7 @@ public record ProductResponse(
         String description,
         BigDecimal price,
         Category category,
-        Integer amount
+        Integer amount,
+        Long version
 ) {
 }
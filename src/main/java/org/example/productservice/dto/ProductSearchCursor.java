@@ -0,0 +1,30 @@
+package org.example.productservice.dto;
+
+import org.example.productservice.exception.InvalidCursorException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+public record ProductSearchCursor(float rank, long lastId) {
+
+    private static final int BYTES = Float.BYTES + Long.BYTES;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        return ENCODER.encodeToString(ByteBuffer.allocate(BYTES).putFloat(rank).putLong(lastId).array());
+    }
+
+    public static ProductSearchCursor decode(String token) {
+        try {
+            byte[] bytes = DECODER.decode(token);
+            if (bytes.length != BYTES) {
+                throw new InvalidCursorException(token);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new ProductSearchCursor(buffer.getFloat(), buffer.getLong());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.productservice.dto;
+
+public record StockChange(
+        Long productId,
+        int delta
+) {
+}
@@ -0,0 +1,13 @@
+package org.example.productservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Builder;
+
+@Builder
+public record StockRequest(
+        @NotNull
+        @Positive
+        Integer quantity
+) {
+}
@@ -0,0 +1,10 @@
+package org.example.productservice.dto;
+
+import lombok.Builder;
+
+@Builder
+public record StockResponse(
+        Long productId,
+        Integer quantity
+) {
+}
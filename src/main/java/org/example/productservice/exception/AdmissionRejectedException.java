@@ -0,0 +1,15 @@
+package org.example.productservice.exception;
+
+import lombok.Getter;
+
+// No connection was free within the wait budget; nothing was done, so the client may retry after the delay
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(long retryAfterSeconds) {
+        super("Too many concurrent requests", null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
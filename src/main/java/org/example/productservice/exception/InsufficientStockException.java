@@ -0,0 +1,14 @@
+package org.example.productservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long productId;
+
+    public InsufficientStockException(Long id, int quantity) {
+        super("Insufficient stock to reserve " + quantity + " of product with id=" + id, null, false, false);
+        this.productId = id;
+    }
+}
@@ -1,7 +1,14 @@
 package org.example.productservice.exception;
 
+import lombok.Getter;
+
+@Getter
 public class ProductNotFoundException extends RuntimeException {
+
+    private final Long productId;
+
     public ProductNotFoundException(Long id) {
-        super("Product with id=" + id + " not found");
+        super("Product with id=" + id + " not found", null, false, false);
+        this.productId = id;
     }
 }
@@ -0,0 +1,14 @@
+package org.example.productservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ProductVersionMismatchException extends RuntimeException {
+
+    private final Long productId;
+
+    public ProductVersionMismatchException(Long id, String expectedVersion) {
+        super("Product with id=" + id + " does not match version " + expectedVersion, null, false, false);
+        this.productId = id;
+    }
+}
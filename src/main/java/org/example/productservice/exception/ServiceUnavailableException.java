@@ -0,0 +1,9 @@
+package org.example.productservice.exception;
+
+// The request could not be served in time but left no side effects, so the client may retry it
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.productservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class StockLimitExceededException extends RuntimeException {
+
+    private final Long productId;
+
+    public StockLimitExceededException(Long id, int quantity) {
+        super("Releasing " + quantity + " would exceed the stock limit of product with id=" + id, null, false, false);
+        this.productId = id;
+    }
+}
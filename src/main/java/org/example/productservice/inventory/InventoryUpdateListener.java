@@ -0,0 +1,154 @@
+package org.example.productservice.inventory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.productservice.config.InventoryProperties;
+import org.example.productservice.dto.InventoryUpdate;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.model.enums.ProductEventType;
+import org.example.productservice.outbox.OutboxWriter;
+import org.example.productservice.repository.ConsumerOffsetRepository;
+import org.example.productservice.repository.ProductBatchRepository.AppliedUpdate;
+import org.example.productservice.repository.ProductRepository;
+import org.example.productservice.service.event.ProductChangedEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Consumes stock and price updates from warehouses and pricing engines one poll batch at a time.
+// The container acknowledges a batch only after this method returns, i.e. after the database commit,
+// and offsets kept in consumer_offset make a redelivered batch a no-op.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "product-service.inventory", name = "enabled", matchIfMissing = true)
+public class InventoryUpdateListener {
+
+    private final ProductRepository productRepository;
+    private final ConsumerOffsetRepository offsetRepository;
+    private final OutboxWriter outboxWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final InventoryProperties properties;
+    private final Counter appliedCounter;
+    private final Counter duplicateCounter;
+    private final Counter invalidCounter;
+
+    public InventoryUpdateListener(ProductRepository productRepository,
+                                   ConsumerOffsetRepository offsetRepository,
+                                   OutboxWriter outboxWriter,
+                                   ApplicationEventPublisher eventPublisher,
+                                   TransactionTemplate transactionTemplate,
+                                   ObjectMapper objectMapper,
+                                   InventoryProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.offsetRepository = offsetRepository;
+        this.outboxWriter = outboxWriter;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.appliedCounter = messageCounter(meterRegistry, "applied");
+        this.duplicateCounter = messageCounter(meterRegistry, "duplicate");
+        this.invalidCounter = messageCounter(meterRegistry, "invalid");
+    }
+
+    @KafkaListener(
+            id = "inventory-updates",
+            topics = "${product-service.inventory.topic:product-inventory-updates}",
+            groupId = "${product-service.inventory.group-id:product-service-inventory}",
+            batch = "true"
+    )
+    public void onUpdates(List<ConsumerRecord<String, String>> records) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(records));
+        } catch (RuntimeException e) {
+            applyOneByOne(records, e);
+        }
+    }
+
+    // The merged statement cannot tell which record broke it, so the batch is replayed record by record and the
+    // first one that still fails is reported by index: the error handler then commits the records before it and
+    // retries and parks only that one. Records already applied are skipped through their stored offsets.
+    private void applyOneByOne(List<ConsumerRecord<String, String>> records, RuntimeException batchFailure) {
+        log.warn("Inventory batch of {} records failed, applying them one by one", records.size(), batchFailure);
+        for (int i = 0; i < records.size(); i++) {
+            List<ConsumerRecord<String, String>> record = List.of(records.get(i));
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(record));
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException("Failed to apply inventory update", e, i);
+            }
+        }
+    }
+
+    private void apply(List<ConsumerRecord<String, String>> records) {
+        Map<Integer, Long> appliedOffsets = offsetRepository.lockNextOffsets(properties.groupId(), properties.topic(),
+                records.stream().map(ConsumerRecord::partition).toList());
+        Map<Integer, Long> nextOffsets = new HashMap<>();
+        List<InventoryUpdate> updates = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            if (record.offset() < appliedOffsets.getOrDefault(record.partition(), 0L)) {
+                duplicateCounter.increment();
+                continue;
+            }
+            nextOffsets.merge(record.partition(), record.offset() + 1, Math::max);
+            InventoryUpdate update = parse(record);
+            if (update != null) {
+                updates.add(update);
+            }
+        }
+        if (nextOffsets.isEmpty()) {
+            return;
+        }
+
+        Collection<InventoryUpdate> merged = InventoryUpdate.mergeById(updates);
+        List<AppliedUpdate> changed = merged.isEmpty() ? List.of() : productRepository.applyInventoryUpdates(merged);
+        offsetRepository.saveNextOffsets(properties.groupId(), properties.topic(), nextOffsets);
+
+        for (AppliedUpdate update : changed) {
+            ProductResponse product = update.product();
+            outboxWriter.append(ProductEventType.UPDATED, product.id(), product);
+            eventPublisher.publishEvent(ProductChangedEvent.updated(update.previous(), product));
+        }
+        appliedCounter.increment(updates.size());
+        if (changed.size() < merged.size()) {
+            log.debug("Ignored inventory updates for {} unknown products", merged.size() - changed.size());
+        }
+    }
+
+    private InventoryUpdate parse(ConsumerRecord<String, String> record) {
+        try {
+            InventoryUpdate update = objectMapper.readValue(record.value(), InventoryUpdate.class);
+            if (update != null && update.isValid()) {
+                return update;
+            }
+        } catch (JacksonException | IllegalArgumentException e) {
+            log.debug("Malformed inventory update at {}-{}@{}", record.topic(), record.partition(), record.offset(), e);
+        }
+        // a bad message is skipped rather than retried forever, it can never succeed
+        invalidCounter.increment();
+        log.warn("Skipped invalid inventory update at {}-{}@{}", record.topic(), record.partition(), record.offset());
+        return null;
+    }
+
+    private static Counter messageCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("product.inventory.messages")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
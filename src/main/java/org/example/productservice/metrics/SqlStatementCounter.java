@@ -0,0 +1,87 @@
+package org.example.productservice.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fed by CountingDataSource, so ORM, JdbcClient and streamed statements all land in the open scopes
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static Scope open() {
+        return open(0);
+    }
+
+    public static Scope open(int capturedStatements) {
+        Scope scope = new Scope(CURRENT.get(), capturedStatements);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    // Lets work handed to another thread, such as a streamed response body, count into the request's scope
+    public static void attach(Scope scope) {
+        CURRENT.set(scope);
+    }
+
+    public static void detach() {
+        CURRENT.remove();
+    }
+
+    static void record(String sql) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.record(sql);
+        }
+    }
+
+    // Scopes nest, so a test can count a single call while the request-level scope keeps counting the whole request
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private final int capturedStatements;
+        private final List<String> captured;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Scope(Scope parent, int capturedStatements) {
+            this.parent = parent;
+            this.capturedStatements = capturedStatements;
+            this.captured = capturedStatements > 0
+                    ? Collections.synchronizedList(new ArrayList<>(capturedStatements))
+                    : List.of();
+        }
+
+        public int count() {
+            return count.get();
+        }
+
+        public List<String> captured() {
+            synchronized (captured) {
+                return List.copyOf(captured);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+
+        private void record(String sql) {
+            count.incrementAndGet();
+            if (capturedStatements > 0) {
+                synchronized (captured) {
+                    if (captured.size() < capturedStatements) {
+                        captured.add(sql);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -35,6 +35,10 @@ public class Product {
     @Column(name = "amount", nullable = false)
     private Integer amount;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
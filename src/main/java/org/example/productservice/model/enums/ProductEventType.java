@@ -0,0 +1,7 @@
+package org.example.productservice.model.enums;
+
+public enum ProductEventType {
+    CREATED,
+    UPDATED,
+    STOCK_CHANGED
+}
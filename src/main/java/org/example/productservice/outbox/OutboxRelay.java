@@ -0,0 +1,81 @@
+package org.example.productservice.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.example.productservice.config.OutboxProperties;
+import org.example.productservice.model.entity.OutboxEvent;
+import org.example.productservice.repository.OutboxEventRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "product-service.outbox", name = "relay-enabled", matchIfMissing = true)
+public class OutboxRelay {
+
+    static final String EVENT_TYPE_HEADER = "event-type";
+
+    private final OutboxEventRepository repository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+
+    @Scheduled(fixedDelayString = "${product-service.outbox.poll-interval:500ms}")
+    public void relay() {
+        Integer relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+        } while (relayed != null && relayed == properties.batchSize());
+    }
+
+    @Scheduled(fixedDelayString = "${product-service.outbox.cleanup-interval:1h}")
+    public void deleteSentEvents() {
+        Integer deleted = transactionTemplate.execute(status ->
+                repository.deleteSentBefore(Instant.now().minus(properties.retention())));
+        log.debug("Deleted {} sent outbox events", deleted);
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = repository.lockUnsent(properties.batchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        CompletableFuture<?>[] sends = events.stream()
+                .map(this::send)
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(sends).get(properties.sendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while relaying outbox events", e);
+        } catch (ExecutionException | TimeoutException e) {
+            // the rows stay unsent and locked rows are released on rollback, the next poll retries them
+            throw new IllegalStateException("Failed to relay outbox events", e);
+        }
+
+        repository.markSent(events.stream().map(OutboxEvent::getId).toList(), Instant.now());
+        return events.size();
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(OutboxEvent event) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(
+                properties.topic(), event.getAggregateId().toString(), event.getPayload());
+        record.headers().add(EVENT_TYPE_HEADER, event.getEventType().name().getBytes(StandardCharsets.UTF_8));
+        return kafkaTemplate.send(record);
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.productservice.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.example.productservice.model.entity.OutboxEvent;
+import org.example.productservice.model.enums.ProductEventType;
+import org.example.productservice.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(ProductEventType eventType, Long productId, Object payload) {
+        repository.save(OutboxEvent.builder()
+                .aggregateId(productId)
+                .eventType(eventType)
+                .payload(objectMapper.writeValueAsString(payload))
+                .createdAt(Instant.now())
+                .build());
+    }
+}
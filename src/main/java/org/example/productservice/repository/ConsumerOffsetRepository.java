@@ -0,0 +1,72 @@
+package org.example.productservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// Kafka offsets stored next to the data they produced, so a batch and its offsets commit atomically
+@Repository
+@RequiredArgsConstructor
+public class ConsumerOffsetRepository {
+
+    private final JdbcClient jdbcClient;
+
+    // Locks only the partitions of the batch, in partition order, so consumers of other partitions never wait on
+    // each other. Missing rows are created first, otherwise two consumers of a new partition would lock nothing.
+    public Map<Integer, Long> lockNextOffsets(String consumerGroup, String topic, Collection<Integer> partitions) {
+        Integer[] batchPartitions = partitions.stream()
+                .distinct()
+                .sorted()
+                .toArray(Integer[]::new);
+        jdbcClient.sql("""
+                        INSERT INTO consumer_offset (consumer_group, topic, partition_id, next_offset)
+                        SELECT ?, ?, u.partition_id, 0
+                        FROM unnest(CAST(? AS integer[])) AS u(partition_id)
+                        ON CONFLICT (consumer_group, topic, partition_id) DO NOTHING
+                        """)
+                .param(consumerGroup)
+                .param(topic)
+                .param(batchPartitions)
+                .update();
+
+        Map<Integer, Long> offsets = HashMap.newHashMap(batchPartitions.length);
+        jdbcClient.sql("""
+                        SELECT partition_id, next_offset
+                        FROM consumer_offset
+                        WHERE consumer_group = ? AND topic = ? AND partition_id = ANY(CAST(? AS integer[]))
+                        ORDER BY partition_id
+                        FOR UPDATE
+                        """)
+                .param(consumerGroup)
+                .param(topic)
+                .param(batchPartitions)
+                .query(rs -> {
+                    offsets.put(rs.getInt("partition_id"), rs.getLong("next_offset"));
+                });
+        return offsets;
+    }
+
+    public void saveNextOffsets(String consumerGroup, String topic, Map<Integer, Long> offsets) {
+        Integer[] partitions = offsets.keySet().toArray(Integer[]::new);
+        Long[] nextOffsets = new Long[partitions.length];
+        for (int i = 0; i < partitions.length; i++) {
+            nextOffsets[i] = offsets.get(partitions[i]);
+        }
+        jdbcClient.sql("""
+                        INSERT INTO consumer_offset (consumer_group, topic, partition_id, next_offset)
+                        SELECT ?, ?, u.partition_id, u.next_offset
+                        FROM unnest(CAST(? AS integer[]), CAST(? AS bigint[])) AS u(partition_id, next_offset)
+                        ON CONFLICT (consumer_group, topic, partition_id)
+                            DO UPDATE SET next_offset = GREATEST(consumer_offset.next_offset, EXCLUDED.next_offset)
+                        """)
+                .param(consumerGroup)
+                .param(topic)
+                .param(partitions)
+                .param(nextOffsets)
+                .update();
+    }
+}
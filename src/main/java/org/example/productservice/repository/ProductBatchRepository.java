@@ -0,0 +1,31 @@
+package org.example.productservice.repository;
+
+import org.example.productservice.dto.InventoryUpdate;
+import org.example.productservice.dto.ProductChange;
+import org.example.productservice.dto.ProductResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ProductBatchRepository {
+
+    List<ProductResponse> findResponsesByIds(Collection<Long> ids);
+
+    // Guarded stock changes; empty when the product is missing or the guard left the row untouched
+    Optional<AppliedUpdate> reserveStock(Long id, int quantity);
+
+    Optional<AppliedUpdate> releaseStock(Long id, int quantity);
+
+    List<AppliedUpdate> applyInventoryUpdates(Collection<InventoryUpdate> updates);
+
+    Map<Long, Long> findVersionsByIds(Collection<Long> ids);
+
+    Stream<ProductChange> streamChangesAfter(long changeSeq, int limit);
+
+    // The row as this statement found it after taking its lock, and as it left it
+    record AppliedUpdate(ProductResponse previous, ProductResponse product) {
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.productservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.productservice.dto.InventoryUpdate;
+import org.example.productservice.dto.ProductChange;
+import org.example.productservice.dto.ProductResponse;
+import org.springframework.jdbc.core.DataClassRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+class ProductBatchRepositoryImpl implements ProductBatchRepository {
+
+    private static final RowMapper<ProductResponse> RESPONSE_MAPPER = new DataClassRowMapper<>(ProductResponse.class);
+
+    private static final RowMapper<ProductChange> CHANGE_MAPPER = (rs, rowNum) -> ProductChange.builder()
+            .changeSeq(rs.getLong("change_seq"))
+            .updatedAt(rs.getTimestamp("updated_at").toInstant())
+            .product(RESPONSE_MAPPER.mapRow(rs, rowNum))
+            .build();
+
+    private static final RowMapper<AppliedUpdate> APPLIED_UPDATE_MAPPER = (rs, rowNum) -> {
+        ProductResponse product = RESPONSE_MAPPER.mapRow(rs, rowNum);
+        ProductResponse previous = ProductResponse.builder()
+                .id(product.id())
+                .name(product.name())
+                .description(product.description())
+                .price(rs.getBigDecimal("previous_price"))
+                .category(product.category())
+                .amount(rs.getInt("previous_amount"))
+                .version(product.version() - 1)
+                .build();
+        return new AppliedUpdate(previous, product);
+    };
+
+    private final JdbcClient jdbcClient;
+
+    @Override
+    public List<ProductResponse> findResponsesByIds(Collection<Long> ids) {
+        // A single array parameter keeps one statement shape for any number of ids, unlike an expanded IN list
+        return jdbcClient.sql("""
+                        SELECT id, name, description, price, category, amount, version
+                        FROM product
+                        WHERE id = ANY(?)
+                        """)
+                .param(ids.toArray(Long[]::new))
+                .query(RESPONSE_MAPPER)
+                .list();
+    }
+
+    @Override
+    public Optional<AppliedUpdate> reserveStock(Long id, int quantity) {
+        return jdbcClient.sql("""
+                        UPDATE product
+                        SET amount = amount - ?, version = version + 1
+                        WHERE id = ? AND amount >= ?
+                        RETURNING id, name, description, price, category, amount, version
+                        """)
+                .param(quantity)
+                .param(id)
+                .param(quantity)
+                .query(stockChangeMapper(-quantity))
+                .optional();
+    }
+
+    @Override
+    public Optional<AppliedUpdate> releaseStock(Long id, int quantity) {
+        return jdbcClient.sql("""
+                        UPDATE product
+                        SET amount = amount + ?, version = version + 1
+                        WHERE id = ? AND amount <= 2147483647 - ?
+                        RETURNING id, name, description, price, category, amount, version
+                        """)
+                .param(quantity)
+                .param(id)
+                .param(quantity)
+                .query(stockChangeMapper(quantity))
+                .optional();
+    }
+
+    @Override
+    public List<AppliedUpdate> applyInventoryUpdates(Collection<InventoryUpdate> updates) {
+        Long[] ids = new Long[updates.size()];
+        Long[] stockDeltas = new Long[updates.size()];
+        String[] prices = new String[updates.size()];
+        int i = 0;
+        for (InventoryUpdate update : updates) {
+            ids[i] = update.productId();
+            stockDeltas[i] = update.stockDeltaOrZero();
+            prices[i] = update.price() == null ? null : update.price().toPlainString();
+            i++;
+        }
+        // One statement per batch whatever its size; stock is computed as bigint and clamped to 0 .. int max since
+        // warehouses report physical counts and a single oversold or overflowing delta must not fail the whole
+        // batch on the CHECK constraint or the int column.
+        // The subquery locks the rows in id order and, under READ COMMITTED, reads them as they are once locked,
+        // so the returned previous state is the one this update replaced even when another writer got there first
+        return jdbcClient.sql("""
+                        UPDATE product p
+                        SET amount = CAST(LEAST(GREATEST(old.amount + old.stock_delta, 0), 2147483647) AS integer),
+                            price = COALESCE(old.new_price, old.price),
+                            version = old.version + 1
+                        FROM (SELECT o.id, o.price, o.amount, o.version, u.stock_delta, u.price AS new_price
+                              FROM product o
+                              JOIN unnest(CAST(? AS bigint[]), CAST(? AS bigint[]), CAST(? AS numeric[]))
+                                       AS u(id, stock_delta, price) ON o.id = u.id
+                              ORDER BY o.id
+                              FOR UPDATE OF o) old
+                        WHERE p.id = old.id
+                        RETURNING p.id, p.name, p.description, p.price, p.category, p.amount, p.version,
+                                  old.price AS previous_price, old.amount AS previous_amount
+                        """)
+                .param(ids)
+                .param(stockDeltas)
+                .param(prices)
+                .query(APPLIED_UPDATE_MAPPER)
+                .list();
+    }
+
+    @Override
+    public Map<Long, Long> findVersionsByIds(Collection<Long> ids) {
+        Map<Long, Long> versions = HashMap.newHashMap(ids.size());
+        jdbcClient.sql("SELECT id, version FROM product WHERE id = ANY(?)")
+                .param(ids.toArray(Long[]::new))
+                .query(rs -> {
+                    versions.put(rs.getLong("id"), rs.getLong("version"));
+                });
+        return versions;
+    }
+
+    @Override
+    public Stream<ProductChange> streamChangesAfter(long changeSeq, int limit) {
+        // Walks idx_product_change_seq from the watermark, so the cost follows the number of changes, not the catalog.
+        // The sequence leads with the writing transaction id, so stopping below the oldest transaction this snapshot
+        // still sees running leaves out every change that may yet commit beneath the client's next watermark.
+        return jdbcClient.sql("""
+                        SELECT change_seq, updated_at, id, name, description, price, category, amount, version
+                        FROM product
+                        WHERE change_seq > ?
+                          AND change_seq < (pg_snapshot_xmin(pg_current_snapshot())::text::bigint << 20)
+                        ORDER BY change_seq
+                        LIMIT ?
+                        """)
+                .param(changeSeq)
+                .param(limit)
+                .withFetchSize(1000)
+                .query(CHANGE_MAPPER)
+                .stream();
+    }
+
+    // A guarded stock update changes nothing but amount and version, so the row before it follows from the row after
+    private static RowMapper<AppliedUpdate> stockChangeMapper(int delta) {
+        return (rs, rowNum) -> {
+            ProductResponse product = RESPONSE_MAPPER.mapRow(rs, rowNum);
+            ProductResponse previous = ProductResponse.builder()
+                    .id(product.id())
+                    .name(product.name())
+                    .description(product.description())
+                    .price(product.price())
+                    .category(product.category())
+                    .amount(product.amount() - delta)
+                    .version(product.version() - 1)
+                    .build();
+            return new AppliedUpdate(previous, product);
+        };
+    }
+}
@@ -1,9 +1,62 @@
 package org.example.productservice.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.productservice.dto.ProductResponse;
 import org.example.productservice.model.entity.Product;
+import org.example.productservice.model.enums.Category;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductSearchRepository, ProductBatchRepository {
+
+    String RESPONSE_PROJECTION = "select new org.example.productservice.dto.ProductResponse(" +
+            "p.id, p.name, p.description, p.price, p.category, p.amount, p.version) from Product p";
+
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    Slice<Product> findSliceBy(Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + " where p.id = :id")
+    Optional<ProductResponse> findResponseById(Long id);
+
+    @Query(value = RESPONSE_PROJECTION, countQuery = "select count(p) from Product p")
+    Page<ProductResponse> findResponsePage(Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION)
+    Slice<ProductResponse> findResponseSlice(Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + " where p.id > :id order by p.id")
+    List<ProductResponse> findResponsesByIdGreaterThan(Long id, Limit limit);
+
+    @Query("select p.name from Product p where p.name in :names")
+    Set<String> findExistingNames(Collection<String> names);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAllOrderedById();
+
+    @Query(value = "SELECT amount FROM product WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Integer> findAmountForUpdate(Long id);
+
+    @Query("select p.category from Product p where p.id = :id")
+    Optional<Category> findCategoryById(Long id);
 }
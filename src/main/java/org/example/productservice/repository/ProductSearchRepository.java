@@ -0,0 +1,15 @@
+package org.example.productservice.repository;
+
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.dto.ProductSearchCursor;
+import org.example.productservice.model.enums.Category;
+
+import java.util.List;
+
+public interface ProductSearchRepository {
+
+    List<SearchHit> search(String query, Category category, ProductSearchCursor after, int limit);
+
+    record SearchHit(ProductResponse product, float rank) {
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.productservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.dto.ProductSearchCursor;
+import org.example.productservice.model.enums.Category;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+    private static final RowMapper<SearchHit> SEARCH_HIT_MAPPER = (rs, rowNum) -> new SearchHit(
+            ProductResponse.builder()
+                    .id(rs.getLong("id"))
+                    .name(rs.getString("name"))
+                    .description(rs.getString("description"))
+                    .price(rs.getBigDecimal("price"))
+                    .category(rs.getString("category") == null ? null : Category.valueOf(rs.getString("category")))
+                    .amount(rs.getInt("amount"))
+                    .version(rs.getLong("version"))
+                    .build(),
+            rs.getFloat("rank")
+    );
+
+    private final JdbcClient jdbcClient;
+
+    @Override
+    public List<SearchHit> search(String query, Category category, ProductSearchCursor after, int limit) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT * FROM (
+                    SELECT p.id, p.name, p.description, p.price, p.category, p.amount, p.version,
+                           ts_rank(p.search_vector, q) AS rank
+                    FROM product p, websearch_to_tsquery('english', :query) q
+                    WHERE p.search_vector @@ q
+                """);
+        if (category != null) {
+            sql.append(" AND p.category = :category");
+        }
+        sql.append(") ranked");
+        if (after != null) {
+            // ts_rank returns real, the parameter is cast so equal ranks compare equal instead of as float8
+            sql.append(" WHERE rank < CAST(:lastRank AS real) OR (rank = CAST(:lastRank AS real) AND id > :lastId)");
+        }
+        sql.append(" ORDER BY rank DESC, id LIMIT :limit");
+
+        JdbcClient.StatementSpec statement = jdbcClient.sql(sql.toString())
+                .param("query", query)
+                .param("limit", limit);
+        if (category != null) {
+            statement = statement.param("category", category.name());
+        }
+        if (after != null) {
+            statement = statement.param("lastRank", after.rank())
+                    .param("lastId", after.lastId());
+        }
+        return statement.query(SEARCH_HIT_MAPPER).list();
+    }
+}
@@ -1,14 +1,39 @@
 package org.example.productservice.service;
 
+import org.example.productservice.dto.BulkProductResponse;
+import org.example.productservice.dto.ProductAggregates;
+import org.example.productservice.dto.ProductBatchResponse;
+import org.example.productservice.dto.ProductChange;
+import org.example.productservice.dto.ProductCursorPage;
+import org.example.productservice.dto.ProductFilter;
+import org.example.productservice.dto.ProductPage;
 import org.example.productservice.dto.ProductRequest;
 import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.dto.StockResponse;
+import org.example.productservice.model.enums.Category;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
 
 public interface ProductService {
 
     Page<ProductResponse> findPageOfProducts(Pageable pageable);
+    Page<ProductResponse> findPageOfProducts(ProductFilter filter, Pageable pageable);
+    ProductPage findProductPage(ProductFilter filter, Pageable pageable);
+    ProductCursorPage findPageOfProductsAfter(String after, int size);
+    ProductCursorPage searchProducts(String query, Category category, String after, int size);
     ProductResponse findProductById(Long id);
+    ProductBatchResponse findProductsByIds(List<Long> ids);
     ProductResponse createProduct(ProductRequest productRequest);
+    ProductResponse updateProduct(Long id, ProductRequest productRequest, String expectedVersion);
+    BulkProductResponse createProducts(Iterator<ProductRequest> productRequests);
+    void exportProducts(Consumer<ProductResponse> consumer);
+    void exportChanges(long after, int limit, Consumer<ProductChange> consumer);
+    ProductAggregates findAggregates();
+    StockResponse reserveStock(Long id, int quantity);
+    StockResponse releaseStock(Long id, int quantity);
 }
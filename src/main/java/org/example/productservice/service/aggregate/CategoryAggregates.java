@@ -0,0 +1,234 @@
+package org.example.productservice.service.aggregate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.dto.CategoryAggregate;
+import org.example.productservice.dto.ProductAggregates;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.model.enums.Category;
+import org.example.productservice.repository.ProductRepository;
+import org.example.productservice.service.event.ProductChangedEvent;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-category counts and stock value kept in memory. Every change event carries the row before and after it,
+// so changes are applied on the spot, and a periodic full scan corrects any drift.
+@Slf4j
+@Component
+public class CategoryAggregates {
+
+    // Marks an id the scan's snapshot does not contain
+    private static final long ABSENT = -1;
+
+    private final ProductRepository repository;
+    private final JdbcClient jdbcClient;
+    private final TransactionTemplate snapshotTransaction;
+    private final Counter cleanCounter;
+    private final Counter driftCounter;
+
+    private Summary summary = new Summary();
+    // Changes seen while a scan runs; only those its snapshot missed are replayed on top of it
+    private List<ProductChangedEvent> duringScan;
+    private Instant reconciledAt;
+
+    public CategoryAggregates(ProductRepository repository, JdbcClient jdbcClient,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.jdbcClient = jdbcClient;
+        // The version lookups after the scan must see the very snapshot the scan saw
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.cleanCounter = reconciliationCounter(meterRegistry, "clean");
+        this.driftCounter = reconciliationCounter(meterRegistry, "drift");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        apply(summary, event);
+        if (duringScan != null) {
+            duringScan.add(event);
+        }
+    }
+
+    // Runs right after startup to build the summary, then periodically to correct drift
+    @Scheduled(fixedDelayString = "${product-service.aggregates.reconcile-interval:10m}")
+    public void reconcile() {
+        // Started before the snapshot, so every change the snapshot may have missed is captured
+        synchronized (this) {
+            duringScan = new ArrayList<>();
+        }
+        try {
+            snapshotTransaction.executeWithoutResult(status -> replaceWith(scan()));
+        } finally {
+            synchronized (this) {
+                duringScan = null;
+            }
+        }
+    }
+
+    public synchronized ProductAggregates snapshot() {
+        Map<Category, CategoryAggregate> categories = new EnumMap<>(Category.class);
+        Totals total = new Totals();
+        summary.categories.forEach((category, totals) -> {
+            categories.put(category, totals.toAggregate());
+            total.merge(totals);
+        });
+        total.merge(summary.uncategorized);
+        return ProductAggregates.builder()
+                .categories(categories)
+                .total(total.toAggregate())
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+
+    private Summary scan() {
+        Summary scanned = new Summary();
+        // Streams the table through a cursor; the surrounding transaction keeps the driver from buffering every row
+        jdbcClient.sql("SELECT category, price, amount FROM product")
+                .withFetchSize(1000)
+                .query(rs -> {
+                    String category = rs.getString("category");
+                    scanned.add(category == null ? null : Category.valueOf(category), rs.getBigDecimal("price"),
+                            rs.getInt("amount"), 1);
+                });
+        return scanned;
+    }
+
+    // A change is in the snapshot when the snapshot holds its row at the changed version or later. Versions are
+    // looked up outside the lock, so the loop repeats until no change arrived for an id it has not looked up yet.
+    private void replaceWith(Summary scanned) {
+        Map<Long, Long> snapshotVersions = new HashMap<>();
+        while (true) {
+            List<Long> unknown;
+            synchronized (this) {
+                unknown = duringScan.stream()
+                        .map(ProductChangedEvent::productId)
+                        .filter(id -> !snapshotVersions.containsKey(id))
+                        .distinct()
+                        .toList();
+                if (unknown.isEmpty()) {
+                    for (ProductChangedEvent event : duringScan) {
+                        if (missedBy(snapshotVersions, event)) {
+                            apply(scanned, event);
+                        }
+                    }
+                    if (reconciledAt != null) {
+                        if (scanned.sameAs(summary)) {
+                            cleanCounter.increment();
+                        } else {
+                            driftCounter.increment();
+                            log.info("Corrected drift in category aggregates");
+                        }
+                    }
+                    summary = scanned;
+                    reconciledAt = Instant.now();
+                    return;
+                }
+            }
+            snapshotVersions.putAll(repository.findVersionsByIds(unknown));
+            unknown.forEach(id -> snapshotVersions.putIfAbsent(id, ABSENT));
+        }
+    }
+
+    private static boolean missedBy(Map<Long, Long> snapshotVersions, ProductChangedEvent event) {
+        Long version = event.product().version();
+        return version == null || version > snapshotVersions.get(event.productId());
+    }
+
+    private static void apply(Summary summary, ProductChangedEvent event) {
+        if (event.previous() != null) {
+            summary.add(event.previous(), -1);
+        }
+        summary.add(event.product(), 1);
+    }
+
+    private static Counter reconciliationCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("product.aggregates.reconciliations")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Summary {
+
+        private final EnumMap<Category, Totals> categories = new EnumMap<>(Category.class);
+        private final Totals uncategorized = new Totals();
+
+        Summary() {
+            for (Category category : Category.values()) {
+                categories.put(category, new Totals());
+            }
+        }
+
+        void add(ProductResponse product, int sign) {
+            add(product.category(), product.price(), product.amount(), sign);
+        }
+
+        void add(Category category, BigDecimal price, int amount, int sign) {
+            (category == null ? uncategorized : categories.get(category)).add(price, amount, sign);
+        }
+
+        boolean sameAs(Summary other) {
+            for (Category category : Category.values()) {
+                if (!categories.get(category).sameAs(other.categories.get(category))) {
+                    return false;
+                }
+            }
+            return uncategorized.sameAs(other.uncategorized);
+        }
+    }
+
+    private static final class Totals {
+
+        private long products;
+        private long units;
+        private BigDecimal stockValue = BigDecimal.ZERO;
+        private long outOfStock;
+
+        void add(BigDecimal price, int amount, int sign) {
+            products += sign;
+            units += (long) sign * amount;
+            stockValue = stockValue.add(price.multiply(BigDecimal.valueOf((long) sign * amount)));
+            if (amount == 0) {
+                outOfStock += sign;
+            }
+        }
+
+        void merge(Totals other) {
+            products += other.products;
+            units += other.units;
+            stockValue = stockValue.add(other.stockValue);
+            outOfStock += other.outOfStock;
+        }
+
+        boolean sameAs(Totals other) {
+            return products == other.products
+                    && units == other.units
+                    && stockValue.compareTo(other.stockValue) == 0
+                    && outOfStock == other.outOfStock;
+        }
+
+        CategoryAggregate toAggregate() {
+            return CategoryAggregate.builder()
+                    .products(products)
+                    .units(units)
+                    .stockValue(stockValue)
+                    .outOfStock(outOfStock)
+                    .build();
+        }
+    }
+}
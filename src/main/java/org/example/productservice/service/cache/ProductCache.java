@@ -0,0 +1,106 @@
+package org.example.productservice.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.productservice.config.ProductCacheProperties;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.service.event.ProductChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Component
+public class ProductCache {
+
+    private final Cache<Long, ProductResponse> products;
+    private final Cache<Long, Boolean> missing;
+    private final AtomicLong changes = new AtomicLong();
+
+    public ProductCache(ProductCacheProperties properties, MeterRegistry meterRegistry) {
+        this.products = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.expireAfterWrite())
+                .recordStats()
+                .build();
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(properties.missingMaximumSize())
+                .expireAfterWrite(properties.missingExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, products, "products");
+        CaffeineCacheMetrics.monitor(meterRegistry, missing, "missing-products");
+    }
+
+    public ProductResponse get(Long id, Function<Long, ProductResponse> loader) {
+        if (missing.getIfPresent(id) != null) {
+            return null;
+        }
+        ProductResponse cached = products.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        // The loader runs outside of Caffeine's compute so a slow query does not hold a map lock,
+        // concurrent loads of one id are deduplicated by the caller
+        long generation = changes.get();
+        ProductResponse product = loader.apply(id);
+        // a product committed while the loader ran must be neither cached stale nor remembered as missing
+        if (generation == changes.get()) {
+            if (product != null) {
+                products.put(id, product);
+            } else {
+                missing.put(id, Boolean.TRUE);
+            }
+        }
+        return product;
+    }
+
+    // Hits come from the cache, known-missing ids are skipped and everything else goes to the loader in one call
+    public Map<Long, ProductResponse> getAll(Collection<Long> ids,
+                                             Function<Collection<Long>, Map<Long, ProductResponse>> loader) {
+        Map<Long, ProductResponse> found = new HashMap<>(products.getAllPresent(ids));
+        List<Long> absent = ids.stream()
+                .filter(id -> !found.containsKey(id) && missing.getIfPresent(id) == null)
+                .toList();
+        if (absent.isEmpty()) {
+            return found;
+        }
+        long generation = changes.get();
+        Map<Long, ProductResponse> loaded = loader.apply(absent);
+        found.putAll(loaded);
+        if (generation == changes.get()) {
+            products.putAll(loaded);
+            for (Long id : absent) {
+                if (!loaded.containsKey(id)) {
+                    missing.put(id, Boolean.TRUE);
+                }
+            }
+        }
+        return found;
+    }
+
+    // Bumped on every change; loads keyed by it never hand a result read before a change to a caller after it
+    public long generation() {
+        return changes.get();
+    }
+
+    // Invalidates rather than caching the new state: after-commit listeners of concurrent writes to one id run
+    // in any order, so putting the event's product could let an older version overwrite a newer one
+    // Runs before the other change listeners, so a reader that sees their effect also sees the new generation
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        changes.incrementAndGet();
+        missing.invalidate(event.productId());
+        products.invalidate(event.productId());
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.productservice.service.count;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.productservice.config.ProductCountProperties;
+import org.example.productservice.dto.ProductFilter;
+import org.example.productservice.repository.ProductRepository;
+import org.example.productservice.repository.ProductSpecifications;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProductCounts {
+
+    private final ProductRepository repository;
+    private final JdbcClient jdbcClient;
+    private final LoadingCache<ProductFilter, Long> counts;
+
+    public ProductCounts(ProductRepository repository, JdbcClient jdbcClient, ProductCountProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.jdbcClient = jdbcClient;
+        // Stale counts keep being served while a single background reload runs
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .refreshAfterWrite(properties.refreshAfterWrite())
+                .recordStats()
+                .build(this::countNow);
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "product-counts");
+    }
+
+    public long estimated(ProductFilter filter) {
+        if (!filter.isEmpty()) {
+            return cached(filter);
+        }
+        // Planner statistics maintained by autovacuum, -1 until the table has been analyzed once
+        long estimate = jdbcClient.sql("SELECT reltuples::bigint FROM pg_class WHERE oid = 'product'::regclass")
+                .query(Long.class)
+                .single();
+        return estimate >= 0 ? estimate : cached(filter);
+    }
+
+    public long cached(ProductFilter filter) {
+        return counts.get(filter);
+    }
+
+    private long countNow(ProductFilter filter) {
+        return filter.isEmpty()
+                ? repository.count()
+                : repository.count(ProductSpecifications.matching(filter));
+    }
+}
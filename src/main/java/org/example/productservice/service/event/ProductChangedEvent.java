@@ -0,0 +1,27 @@
+package org.example.productservice.service.event;
+
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.model.enums.ProductEventType;
+
+// Both states are read by the writing statement itself, so listeners never have to reload the row
+public record ProductChangedEvent(
+        Long productId,
+        ProductEventType type,
+        // State after the change
+        ProductResponse product,
+        // State the change replaced, null for inserts
+        ProductResponse previous
+) {
+
+    public static ProductChangedEvent created(ProductResponse product) {
+        return new ProductChangedEvent(product.id(), ProductEventType.CREATED, product, null);
+    }
+
+    public static ProductChangedEvent updated(ProductResponse previous, ProductResponse product) {
+        return new ProductChangedEvent(product.id(), ProductEventType.UPDATED, product, previous);
+    }
+
+    public static ProductChangedEvent stockChanged(ProductResponse previous, ProductResponse product) {
+        return new ProductChangedEvent(product.id(), ProductEventType.STOCK_CHANGED, product, previous);
+    }
+}
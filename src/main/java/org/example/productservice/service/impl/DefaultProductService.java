@@ -1,67 +1,496 @@
 package org.example.productservice.service.impl;
 
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.example.productservice.config.ProductBulkProperties;
+import org.example.productservice.config.ProductChangeFeedProperties;
+import org.example.productservice.config.ProductCountProperties;
+import org.example.productservice.config.ProductReadProperties;
+import org.example.productservice.config.SingleFlightProperties;
+import org.example.productservice.dto.BulkProductResponse;
+import org.example.productservice.dto.BulkProductResult;
+import org.example.productservice.dto.ProductAggregates;
+import org.example.productservice.dto.ProductBatchResponse;
+import org.example.productservice.dto.ProductCursor;
+import org.example.productservice.dto.ProductChange;
+import org.example.productservice.dto.ProductCursorPage;
+import org.example.productservice.dto.ProductFilter;
+import org.example.productservice.dto.ProductPage;
 import org.example.productservice.dto.ProductRequest;
 import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.dto.ProductSearchCursor;
+import org.example.productservice.dto.StockChange;
+import org.example.productservice.dto.StockResponse;
+import org.example.productservice.exception.InsufficientStockException;
 import org.example.productservice.exception.ProductNotFoundException;
+import org.example.productservice.exception.ProductVersionMismatchException;
+import org.example.productservice.exception.StockLimitExceededException;
 import org.example.productservice.model.entity.Product;
+import org.example.productservice.model.enums.Category;
+import org.example.productservice.model.enums.ProductEventType;
+import org.example.productservice.outbox.OutboxWriter;
+import org.example.productservice.repository.ProductBatchRepository.AppliedUpdate;
 import org.example.productservice.repository.ProductRepository;
+import org.example.productservice.repository.ProductSearchRepository.SearchHit;
+import org.example.productservice.repository.ProductSpecifications;
 import org.example.productservice.service.ProductService;
-import org.springframework.beans.factory.annotation.Value;
+import org.example.productservice.service.aggregate.CategoryAggregates;
+import org.example.productservice.service.cache.ProductCache;
+import org.example.productservice.service.cache.SingleFlight;
+import org.example.productservice.service.count.ProductCounts;
+import org.example.productservice.service.event.ProductChangedEvent;
+import org.example.productservice.service.mapper.ProductMapper;
+import org.example.productservice.service.stock.StockDecrementCoalescer;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "product.service", histogram = true)
 @RequiredArgsConstructor
 public class DefaultProductService implements ProductService {
 
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String NAME_CONSTRAINT = "product_name_key";
+
     private final ProductRepository repository;
+    private final ProductCache cache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxWriter outboxWriter;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ProductBulkProperties bulkProperties;
+    private final StockDecrementCoalescer stockCoalescer;
+    private final ProductReadProperties readProperties;
+    private final ProductCountProperties countProperties;
+    private final ProductCounts productCounts;
+    private final SingleFlightProperties singleFlightProperties;
+    private final ProductChangeFeedProperties changeFeedProperties;
+    private final CategoryAggregates categoryAggregates;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final SingleFlight<ProductKey, ProductResponse> productLoads = new SingleFlight<>();
+    private final SingleFlight<PageKey, ProductPage> pageLoads = new SingleFlight<>();
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductResponse> findPageOfProducts(Pageable pageable) {
+        if (readProperties.page() == ProductReadProperties.Mode.PROJECTION) {
+            return repository.findResponsePage(pageable);
+        }
         return repository.findAll(pageable)
-                .map(this::toResponse);
+                .map(ProductMapper::toResponse);
     }
 
     @Override
     @Transactional(readOnly = true)
+    public Page<ProductResponse> findPageOfProducts(ProductFilter filter, Pageable pageable) {
+        if (filter.isEmpty()) {
+            return findPageOfProducts(pageable);
+        }
+        return repository.findAll(ProductSpecifications.matching(filter), pageable)
+                .map(ProductMapper::toResponse);
+    }
+
+    // Not transactional on purpose: callers waiting for an identical in-flight page must not hold a connection,
+    // only the leader opens a read-only transaction
+    @Override
+    public ProductPage findProductPage(ProductFilter filter, Pageable pageable) {
+        return coalesce(pageLoads, new PageKey(filter, pageable, cache.generation()),
+                key -> readOnly().execute(status -> loadProductPage(filter, pageable)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductCursorPage findPageOfProductsAfter(String after, int size) {
+        long lastId = after == null || after.isEmpty() ? 0L : ProductCursor.decode(after).lastId();
+        List<ProductResponse> products = readProperties.keyset() == ProductReadProperties.Mode.PROJECTION
+                ? repository.findResponsesByIdGreaterThan(lastId, Limit.of(size + 1))
+                : repository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(size + 1)).stream()
+                        .map(ProductMapper::toResponse)
+                        .toList();
+
+        boolean hasNext = products.size() > size;
+        List<ProductResponse> content = hasNext ? products.subList(0, size) : products;
+        String next = hasNext ? new ProductCursor(content.getLast().id()).encode() : null;
+
+        return ProductCursorPage.builder()
+                .content(content)
+                .size(size)
+                .next(next)
+                .build();
+    }
+
+    @Override
+    public ProductCursorPage searchProducts(String query, Category category, String after, int size) {
+        ProductSearchCursor cursor = after == null || after.isEmpty() ? null : ProductSearchCursor.decode(after);
+        List<SearchHit> hits = repository.search(query, category, cursor, size + 1);
+
+        boolean hasNext = hits.size() > size;
+        List<SearchHit> page = hasNext ? hits.subList(0, size) : hits;
+        String next = null;
+        if (hasNext) {
+            SearchHit last = page.getLast();
+            next = new ProductSearchCursor(last.rank(), last.product().id()).encode();
+        }
+
+        return ProductCursorPage.builder()
+                .content(page.stream().map(SearchHit::product).toList())
+                .size(size)
+                .next(next)
+                .build();
+    }
+
+    @Override
     public ProductResponse findProductById(Long id) {
-        Optional<Product> product = repository.findById(id);
-        if (product.isEmpty()) {
+        // The leader checks the cache again, so a caller that just missed a finished flight still skips the query
+        ProductResponse product = cache.get(id, key -> coalesce(productLoads, new ProductKey(key, cache.generation()),
+                flight -> cache.get(flight.id(), this::loadProduct)));
+        if (product == null) {
             throw new ProductNotFoundException(id);
         }
-        return toResponse(product.get());
+        return product;
+    }
+
+    @Override
+    public ProductBatchResponse findProductsByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, ProductResponse> found = cache.getAll(requested, this::loadProducts);
+
+        List<ProductResponse> products = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            ProductResponse product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missing.add(id);
+            }
+        }
+        return ProductBatchResponse.builder()
+                .products(products)
+                .missing(missing)
+                .build();
     }
 
     @Override
     @Transactional
     public ProductResponse createProduct(ProductRequest productRequest) {
-        Product product = Product.builder()
-                .name(productRequest.name())
-                .description(productRequest.description())
-                .price(productRequest.price())
-                .category(productRequest.category())
-                .amount(productRequest.amount())
-                .build();
+        Product product = ProductMapper.toEntity(productRequest);
+
+        ProductResponse response = ProductMapper.toResponse(repository.save(product));
+        outboxWriter.append(ProductEventType.CREATED, response.id(), response);
+        eventPublisher.publishEvent(ProductChangedEvent.created(response));
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public ProductResponse updateProduct(Long id, ProductRequest productRequest, String expectedVersion) {
+        Product product = repository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
+        if (expectedVersion != null && !expectedVersion.equals(String.valueOf(product.getVersion()))) {
+            throw new ProductVersionMismatchException(id, expectedVersion);
+        }
 
-        Product savedProduct = repository.save(product);
-        return toResponse(savedProduct);
+        ProductResponse previous = ProductMapper.toResponse(product);
+        product.setName(productRequest.name());
+        product.setDescription(productRequest.description());
+        product.setPrice(productRequest.price());
+        product.setCategory(productRequest.category());
+        product.setAmount(productRequest.amount());
+        repository.flush();
+
+        ProductResponse response = ProductMapper.toResponse(product);
+        outboxWriter.append(ProductEventType.UPDATED, id, response);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(previous, response));
+        return response;
     }
 
+    @Override
+    public BulkProductResponse createProducts(Iterator<ProductRequest> productRequests) {
+        List<BulkProductResult> results = new ArrayList<>();
+        List<IndexedRequest> chunk = new ArrayList<>(bulkProperties.chunkSize());
+        Set<String> names = new HashSet<>();
+
+        for (int index = 0; ; index++) {
+            ProductRequest productRequest;
+            try {
+                if (!productRequests.hasNext()) {
+                    break;
+                }
+                productRequest = productRequests.next();
+            } catch (JacksonException e) {
+                // earlier chunks are already committed, report them with the unreadable item instead of failing the request
+                results.add(BulkProductResult.unreadable(index));
+                break;
+            }
+            Map<String, String> errors = validate(productRequest);
+            if (!errors.isEmpty()) {
+                results.add(BulkProductResult.invalid(index, errors));
+            } else if (!names.add(productRequest.name())) {
+                results.add(BulkProductResult.conflict(index));
+            } else {
+                chunk.add(new IndexedRequest(index, productRequest));
+                if (chunk.size() == bulkProperties.chunkSize()) {
+                    results.addAll(createChunk(chunk));
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(createChunk(chunk));
+        }
 
-    private ProductResponse toResponse(Product product) {
-        return ProductResponse.builder()
-                .id(product.getId())
-                .name(product.getName())
-                .description(product.getDescription())
-                .price(product.getPrice())
-                .category(product.getCategory())
-                .amount(product.getAmount())
+        results.sort(Comparator.comparingInt(BulkProductResult::index));
+        int created = (int) results.stream()
+                .filter(result -> result.status() == BulkProductResult.Status.CREATED)
+                .count();
+        return BulkProductResponse.builder()
+                .created(created)
+                .failed(results.size() - created)
+                .results(results)
                 .build();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(Consumer<ProductResponse> consumer) {
+        try (Stream<Product> products = repository.streamAllOrderedById()) {
+            products.forEach(product -> {
+                consumer.accept(ProductMapper.toResponse(product));
+                entityManager.detach(product);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportChanges(long after, int limit, Consumer<ProductChange> consumer) {
+        int boundedLimit = Math.clamp(limit, 1, changeFeedProperties.maxLimit());
+        try (Stream<ProductChange> changes = repository.streamChangesAfter(after, boundedLimit)) {
+            changes.forEach(consumer);
+        }
+    }
+
+    @Override
+    public ProductAggregates findAggregates() {
+        return categoryAggregates.snapshot();
+    }
+
+    @Override
+    public StockResponse reserveStock(Long id, int quantity) {
+        if (stockCoalescer.isEnabledFor(id)) {
+            stockCoalescer.reserve(id, quantity);
+        } else {
+            transactionTemplate.executeWithoutResult(status -> reserveNow(id, quantity));
+        }
+        return new StockResponse(id, quantity);
+    }
+
+    @Override
+    @Transactional
+    public StockResponse releaseStock(Long id, int quantity) {
+        AppliedUpdate applied = repository.releaseStock(id, quantity).orElse(null);
+        if (applied == null) {
+            if (!repository.existsById(id)) {
+                throw new ProductNotFoundException(id);
+            }
+            throw new StockLimitExceededException(id, quantity);
+        }
+        recordStockChange(applied, quantity);
+        return new StockResponse(id, quantity);
+    }
+
+    private void reserveNow(Long id, int quantity) {
+        AppliedUpdate applied = repository.reserveStock(id, quantity).orElse(null);
+        if (applied == null) {
+            if (!repository.existsById(id)) {
+                throw new ProductNotFoundException(id);
+            }
+            throw new InsufficientStockException(id, quantity);
+        }
+        recordStockChange(applied, -quantity);
+    }
+
+    private void recordStockChange(AppliedUpdate applied, int delta) {
+        Long id = applied.product().id();
+        outboxWriter.append(ProductEventType.STOCK_CHANGED, id, new StockChange(id, delta));
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(applied.previous(), applied.product()));
+    }
+
+    private List<BulkProductResult> createChunk(List<IndexedRequest> chunk) {
+        try {
+            return transactionTemplate.execute(status -> insertChunk(chunk));
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent writer took a name after the check or a row broke a constraint, isolate it row by row
+            return chunk.stream()
+                    .map(this::insertOne)
+                    .toList();
+        }
+    }
+
+    private List<BulkProductResult> insertChunk(List<IndexedRequest> chunk) {
+        Set<String> existingNames = repository.findExistingNames(chunk.stream()
+                .map(request -> request.productRequest().name())
+                .toList());
+
+        List<BulkProductResult> results = new ArrayList<>(chunk.size());
+        List<IndexedRequest> inserted = new ArrayList<>(chunk.size());
+        List<Product> products = new ArrayList<>(chunk.size());
+        for (IndexedRequest request : chunk) {
+            if (existingNames.contains(request.productRequest().name())) {
+                results.add(BulkProductResult.conflict(request.index()));
+            } else {
+                inserted.add(request);
+                products.add(ProductMapper.toEntity(request.productRequest()));
+            }
+        }
+
+        repository.saveAll(products);
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            ProductResponse response = ProductMapper.toResponse(product);
+            outboxWriter.append(ProductEventType.CREATED, product.getId(), response);
+            eventPublisher.publishEvent(ProductChangedEvent.created(response));
+            results.add(BulkProductResult.created(inserted.get(i).index(), product.getId()));
+        }
+        repository.flush();
+        entityManager.clear();
+        return results;
+    }
+
+    private BulkProductResult insertOne(IndexedRequest request) {
+        try {
+            Long id = transactionTemplate.execute(status -> {
+                Product product = repository.saveAndFlush(ProductMapper.toEntity(request.productRequest()));
+                ProductResponse response = ProductMapper.toResponse(product);
+                outboxWriter.append(ProductEventType.CREATED, product.getId(), response);
+                eventPublisher.publishEvent(ProductChangedEvent.created(response));
+                return product.getId();
+            });
+            return BulkProductResult.created(request.index(), id);
+        } catch (DataIntegrityViolationException e) {
+            return isDuplicateName(e)
+                    ? BulkProductResult.conflict(request.index())
+                    : BulkProductResult.rejected(request.index());
+        }
+    }
+
+    // Only a unique violation on the name is a conflict, any other constraint failure belongs to the item itself
+    private static boolean isDuplicateName(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return UNIQUE_VIOLATION.equals(violation.getSQLState())
+                        && NAME_CONSTRAINT.equals(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    private Map<String, String> validate(ProductRequest productRequest) {
+        if (productRequest == null) {
+            return Map.of("item", "must not be null");
+        }
+        Map<String, String> errors = new HashMap<>();
+        for (ConstraintViolation<ProductRequest> violation : validator.validate(productRequest)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    private ProductPage loadProductPage(ProductFilter filter, Pageable pageable) {
+        ProductCountProperties.Mode mode = countProperties.mode();
+        if (mode == ProductCountProperties.Mode.EXACT) {
+            return ProductPage.of(findPageOfProducts(filter, pageable));
+        }
+        Slice<ProductResponse> slice = findSliceOfProducts(filter, pageable);
+        if (mode == ProductCountProperties.Mode.NONE || !slice.hasNext()) {
+            return ProductPage.of(slice);
+        }
+        long estimate = mode == ProductCountProperties.Mode.ESTIMATED
+                ? productCounts.estimated(filter)
+                : productCounts.cached(filter);
+        return ProductPage.of(slice, estimate);
+    }
+
+    // Fetches one extra row to tell whether a next page exists instead of running a count query
+    private Slice<ProductResponse> findSliceOfProducts(ProductFilter filter, Pageable pageable) {
+        if (!filter.isEmpty()) {
+            return repository.findBy(ProductSpecifications.matching(filter), query -> query.slice(pageable))
+                    .map(ProductMapper::toResponse);
+        }
+        if (readProperties.page() == ProductReadProperties.Mode.PROJECTION) {
+            return repository.findResponseSlice(pageable);
+        }
+        return repository.findSliceBy(pageable)
+                .map(ProductMapper::toResponse);
+    }
+
+    private Map<Long, ProductResponse> loadProducts(Collection<Long> ids) {
+        Map<Long, ProductResponse> products = HashMap.newHashMap(ids.size());
+        for (ProductResponse product : repository.findResponsesByIds(ids)) {
+            products.put(product.id(), product);
+        }
+        return products;
+    }
+
+    private <K, V> V coalesce(SingleFlight<K, V> flights, K key, Function<K, V> loader) {
+        if (!singleFlightProperties.enabled()) {
+            return loader.apply(key);
+        }
+        return flights.execute(key, loader, singleFlightProperties.timeout());
+    }
+
+    private ProductResponse loadProduct(Long id) {
+        if (readProperties.byId() == ProductReadProperties.Mode.PROJECTION) {
+            return repository.findResponseById(id).orElse(null);
+        }
+        return repository.findById(id)
+                .map(ProductMapper::toResponse)
+                .orElse(null);
+    }
+
+    private record IndexedRequest(int index, ProductRequest productRequest) {
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private record ProductKey(Long id, long generation) {
+    }
+
+    private record PageKey(ProductFilter filter, Pageable pageable, long generation) {
+    }
 }
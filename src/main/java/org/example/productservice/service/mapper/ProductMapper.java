@@ -0,0 +1,33 @@
+package org.example.productservice.service.mapper;
+
+import org.example.productservice.dto.ProductRequest;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.model.entity.Product;
+
+public final class ProductMapper {
+
+    private ProductMapper() {
+    }
+
+    public static Product toEntity(ProductRequest productRequest) {
+        return Product.builder()
+                .name(productRequest.name())
+                .description(productRequest.description())
+                .price(productRequest.price())
+                .category(productRequest.category())
+                .amount(productRequest.amount())
+                .build();
+    }
+
+    public static ProductResponse toResponse(Product product) {
+        return ProductResponse.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .category(product.getCategory())
+                .amount(product.getAmount())
+                .version(product.getVersion())
+                .build();
+    }
+}
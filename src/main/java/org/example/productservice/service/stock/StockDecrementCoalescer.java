@@ -0,0 +1,208 @@
+package org.example.productservice.service.stock;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.config.StockCoalescingProperties;
+import org.example.productservice.dto.StockChange;
+import org.example.productservice.exception.InsufficientStockException;
+import org.example.productservice.exception.ProductNotFoundException;
+import org.example.productservice.exception.ServiceUnavailableException;
+import org.example.productservice.model.enums.Category;
+import org.example.productservice.model.enums.ProductEventType;
+import org.example.productservice.outbox.OutboxWriter;
+import org.example.productservice.repository.ProductBatchRepository.AppliedUpdate;
+import org.example.productservice.repository.ProductRepository;
+import org.example.productservice.service.event.ProductChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Component
+public class StockDecrementCoalescer {
+
+    private final ProductRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxWriter outboxWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockCoalescingProperties properties;
+
+    private final ConcurrentHashMap<Long, Window> windows = new ConcurrentHashMap<>();
+    private final Cache<Long, Optional<Category>> categories = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("stock-coalescer").daemon().factory());
+    private final ExecutorService flushExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("stock-flush-", 0).factory());
+
+    public StockDecrementCoalescer(ProductRepository repository,
+                                   TransactionTemplate transactionTemplate,
+                                   OutboxWriter outboxWriter,
+                                   ApplicationEventPublisher eventPublisher,
+                                   StockCoalescingProperties properties) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxWriter = outboxWriter;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+    }
+
+    public boolean isEnabledFor(Long id) {
+        if (!properties.enabled()) {
+            return false;
+        }
+        if (properties.productIds().contains(id)) {
+            return true;
+        }
+        if (properties.categories().isEmpty()) {
+            return false;
+        }
+        return categories.get(id, repository::findCategoryById)
+                .map(properties.categories()::contains)
+                .orElse(false);
+    }
+
+    public void reserve(Long id, int quantity) {
+        Reservation reservation = new Reservation(quantity, new CompletableFuture<>(), new AtomicBoolean());
+        // ConcurrentHashMap locks only the bin of this id, so callers for different products never contend
+        windows.compute(id, (key, window) -> {
+            if (window == null) {
+                window = new Window();
+                scheduler.schedule(() -> flushExecutor.execute(() -> flush(key)),
+                        properties.window().toNanos(), TimeUnit.NANOSECONDS);
+            }
+            window.reservations().add(reservation);
+            return window;
+        });
+
+        boolean reserved;
+        try {
+            reserved = reservation.result().get(properties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reserved = awaitOrCancel(id, reservation, e);
+        } catch (TimeoutException e) {
+            reserved = awaitOrCancel(id, reservation, e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+        if (!reserved) {
+            throw new InsufficientStockException(id, quantity);
+        }
+    }
+
+    // A reservation the flush has not taken yet is withdrawn, so stock is never taken for a caller that gave up.
+    // Once taken, the flush outcome stands and the caller waits for it.
+    private boolean awaitOrCancel(Long id, Reservation reservation, Exception cause) {
+        if (reservation.taken().compareAndSet(false, true)) {
+            throw new ServiceUnavailableException("Stock reservation for product with id=" + id + " timed out", cause);
+        }
+        try {
+            return reservation.result().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        flushExecutor.close();
+        windows.keySet().forEach(this::flush);
+    }
+
+    private void flush(Long id) {
+        Window window = windows.remove(id);
+        if (window == null) {
+            return;
+        }
+        List<Reservation> reservations = window.reservations().stream()
+                .filter(reservation -> reservation.taken().compareAndSet(false, true))
+                .toList();
+        if (reservations.isEmpty()) {
+            return;
+        }
+        try {
+            boolean[] granted = transactionTemplate.execute(status -> apply(id, reservations));
+            for (int i = 0; i < reservations.size(); i++) {
+                reservations.get(i).result().complete(granted[i]);
+            }
+        } catch (RuntimeException e) {
+            log.debug("Failed to flush {} stock reservations for product {}", reservations.size(), id, e);
+            reservations.forEach(reservation -> reservation.result().completeExceptionally(e));
+        }
+    }
+
+    private boolean[] apply(Long id, List<Reservation> reservations) {
+        boolean[] granted = new boolean[reservations.size()];
+        long requested = reservations.stream().mapToLong(Reservation::quantity).sum();
+
+        int reserved;
+        // A window larger than an int goes straight to granting reservations one by one
+        Optional<AppliedUpdate> applied = requested <= Integer.MAX_VALUE
+                ? repository.reserveStock(id, (int) requested)
+                : Optional.empty();
+        if (applied.isPresent()) {
+            Arrays.fill(granted, true);
+            reserved = (int) requested;
+        } else {
+            int available = repository.findAmountForUpdate(id)
+                    .orElseThrow(() -> new ProductNotFoundException(id));
+            int remaining = available;
+            for (int i = 0; i < reservations.size(); i++) {
+                int quantity = reservations.get(i).quantity();
+                if (quantity <= remaining) {
+                    granted[i] = true;
+                    remaining -= quantity;
+                }
+            }
+            reserved = available - remaining;
+            if (reserved > 0) {
+                applied = repository.reserveStock(id, reserved);
+            }
+        }
+
+        if (applied.isPresent()) {
+            outboxWriter.append(ProductEventType.STOCK_CHANGED, id, new StockChange(id, -reserved));
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(applied.get().previous(),
+                    applied.get().product()));
+        }
+        return granted;
+    }
+
+    private record Window(List<Reservation> reservations) {
+        Window() {
+            this(new ArrayList<>());
+        }
+    }
+
+    private record Reservation(int quantity, CompletableFuture<Boolean> result, AtomicBoolean taken) {
+    }
+}
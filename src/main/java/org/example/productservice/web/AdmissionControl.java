@@ -0,0 +1,169 @@
+package org.example.productservice.web;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.config.AdmissionProperties;
+import org.example.productservice.exception.AdmissionRejectedException;
+import org.example.productservice.exception.ServiceUnavailableException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Bounds the transactions requests hold open to the size of the connection pool. A permit is taken when a request
+// begins a transaction and returned when it completes, so cache hits, single-flight waiters and parked stock
+// reservations hold none. Writes may not take the read reserve, so a burst of imports leaves reads a share of the
+// pool. Background work runs outside a request and is not limited here.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "product-service.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControl implements TransactionExecutionListener {
+
+    private static final int DEFAULT_PERMITS = 10;
+    // Set once a request began a transaction; its later transactions wait instead of failing it halfway
+    private static final String ADMITTED_ATTRIBUTE = AdmissionControl.class.getName() + ".admitted";
+
+    private final Semaphore permits;
+    // Writes draw from this share first, so the reserved permits stay open to read-only transactions
+    private final Semaphore writePermits;
+    private final long maxWaitNanos;
+    private final long retryAfterSeconds;
+    private final Counter rejectedCounter;
+    // Admitted transactions, mapped to whether they hold a write permit too
+    private final Map<TransactionExecution, Boolean> admitted = new ConcurrentHashMap<>();
+
+    public AdmissionControl(AdmissionProperties properties, DataSource dataSource, MeterRegistry meterRegistry) {
+        int limit = properties.permits() > 0 ? properties.permits() : poolSize(dataSource);
+        int readReserve = Math.max(0, Math.min(properties.readReserve(), limit - 1));
+        this.permits = new Semaphore(limit, true);
+        this.writePermits = new Semaphore(limit - readReserve, true);
+        this.maxWaitNanos = properties.maxWait().toNanos();
+        this.retryAfterSeconds = Math.max(1, (properties.retryAfter().toMillis() + 999) / 1000);
+        this.rejectedCounter = Counter.builder("product.admission.rejected")
+                .register(meterRegistry);
+        Gauge.builder("product.admission.available", permits, Semaphore::availablePermits)
+                .register(meterRegistry);
+        Gauge.builder("product.admission.queued", permits, Semaphore::getQueueLength)
+                .register(meterRegistry);
+        Gauge.builder("product.admission.write.available", writePermits, Semaphore::availablePermits)
+                .register(meterRegistry);
+        log.info("Admission control enabled with {} permits, {} reserved for reads and {} wait budget",
+                limit, readReserve, properties.maxWait());
+    }
+
+    @Override
+    public void beforeBegin(TransactionExecution transaction) {
+        HttpServletRequest request = currentRequest();
+        // A streamed response holds its transaction for as long as the client reads, so it is not counted;
+        // otherwise a few open exports would turn every other request away
+        if (request == null || request.isAsyncStarted()) {
+            return;
+        }
+        boolean write = !transaction.isReadOnly();
+        if (request.getAttribute(ADMITTED_ATTRIBUTE) != null) {
+            acquire(write);
+        } else if (tryAcquire(write)) {
+            request.setAttribute(ADMITTED_ATTRIBUTE, Boolean.TRUE);
+        } else {
+            rejectedCounter.increment();
+            throw new AdmissionRejectedException(retryAfterSeconds);
+        }
+        admitted.put(transaction, write);
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (!admitted.containsKey(transaction)) {
+            return;
+        }
+        if (beginFailure != null) {
+            release(transaction);
+            return;
+        }
+        // Runs after commit or rollback, including when either fails
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(transaction);
+            }
+        });
+    }
+
+    private void release(TransactionExecution transaction) {
+        Boolean write = admitted.remove(transaction);
+        if (write != null) {
+            permits.release();
+            if (write) {
+                writePermits.release();
+            }
+        }
+    }
+
+    private boolean tryAcquire(boolean write) {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        boolean writeHeld = false;
+        try {
+            if (write) {
+                writeHeld = writePermits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+                if (!writeHeld) {
+                    return false;
+                }
+            }
+            if (permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writeHeld) {
+            writePermits.release();
+        }
+        return false;
+    }
+
+    private void acquire(boolean write) {
+        boolean writeHeld = false;
+        try {
+            if (write) {
+                writePermits.acquire();
+                writeHeld = true;
+            }
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (writeHeld) {
+                writePermits.release();
+            }
+            throw new ServiceUnavailableException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest()
+                : null;
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        // The pool sits behind the statement counting wrapper
+        HikariDataSource hikari = dataSource == null
+                ? null
+                : DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        return hikari != null ? hikari.getMaximumPoolSize() : DEFAULT_PERMITS;
+    }
+}
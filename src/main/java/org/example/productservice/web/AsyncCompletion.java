@@ -0,0 +1,51 @@
+package org.example.productservice.web;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Streaming responses keep running after the filter chain returns; this hands the end of the request to a callback
+final class AsyncCompletion {
+
+    private AsyncCompletion() {
+    }
+
+    // Calls the callback exactly once, with the failure when the request ended by timeout or error, else null
+    static void whenDone(HttpServletRequest request, Consumer<Throwable> callback) {
+        AtomicBoolean done = new AtomicBoolean();
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                finish(null);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                finish(new AsyncRequestTimeoutException());
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                finish(event.getThrowable() != null
+                        ? event.getThrowable()
+                        : new IllegalStateException("Async request failed"));
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                // listeners are dropped when async processing restarts
+                event.getAsyncContext().addListener(this);
+            }
+
+            private void finish(Throwable failure) {
+                if (done.compareAndSet(false, true)) {
+                    callback.accept(failure);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.productservice.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.productservice.config.ConcurrencyLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.DisconnectedClientHelper;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 100)
+@ConditionalOnProperty(prefix = "product-service.concurrency-limit", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final GradientConcurrencyLimiter readLimiter;
+    private final GradientConcurrencyLimiter writeLimiter;
+    private final Counter readRejectedCounter;
+    private final Counter writeRejectedCounter;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.readLimiter = new GradientConcurrencyLimiter(properties.read());
+        this.writeLimiter = new GradientConcurrencyLimiter(properties.write());
+        this.readRejectedCounter = register(readLimiter, "read", meterRegistry);
+        this.writeRejectedCounter = register(writeLimiter, "write", meterRegistry);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        GradientConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            (read ? readRejectedCounter : writeRejectedCounter).increment();
+            TooManyRequestsResponses.write(request, response, objectMapper, "1", "Concurrency limit exceeded");
+            return;
+        }
+
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            // A streamed response keeps its slot until it completes and is measured end to end
+            if (failure == null && request.isAsyncStarted()) {
+                AsyncCompletion.whenDone(request, asyncFailure -> record(limiter, response, asyncFailure, start));
+            } else {
+                record(limiter, response, failure, start);
+            }
+        }
+    }
+
+    private static void record(GradientConcurrencyLimiter limiter, HttpServletResponse response, Throwable failure,
+                               long start) {
+        int status = response.getStatus();
+        if (failure != null ? DisconnectedClientHelper.isClientDisconnectedException(failure) : isClientError(status)) {
+            // Client errors and disconnects say nothing about capacity, and their latency would skew the baseline
+            limiter.onIgnored();
+        } else if (failure != null || status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            limiter.onDropped();
+        } else {
+            limiter.onSuccess(System.nanoTime() - start);
+        }
+    }
+
+    private static boolean isClientError(int status) {
+        return status >= 400 && status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private static Counter register(GradientConcurrencyLimiter limiter, String type, MeterRegistry meterRegistry) {
+        Gauge.builder("product.concurrency.limit", limiter, GradientConcurrencyLimiter::getLimit)
+                .tag("type", type)
+                .register(meterRegistry);
+        Gauge.builder("product.concurrency.in-flight", limiter, GradientConcurrencyLimiter::getInFlight)
+                .tag("type", type)
+                .register(meterRegistry);
+        return Counter.builder("product.concurrency.rejected")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
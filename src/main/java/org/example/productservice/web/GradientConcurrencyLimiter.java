@@ -0,0 +1,84 @@
+package org.example.productservice.web;
+
+import org.example.productservice.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Gradient limiter: compares the short-term round trip time with a slowly moving long-term baseline. While they
+// agree the limit grows by a queue allowance of sqrt(limit); once latency rises above the baseline the gradient
+// drops below 1 and shrinks the limit proportionally. Errors and downstream rejections back off multiplicatively.
+public class GradientConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SHORT_WINDOW_ALPHA = 0.5;
+
+    private final ConcurrencyLimitProperties.Limit settings;
+    private final double longWindowAlpha;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    public GradientConcurrencyLimiter(ConcurrencyLimitProperties.Limit settings) {
+        this.settings = settings;
+        this.longWindowAlpha = 2.0 / (settings.longWindow() + 1);
+        this.limit = settings.initialLimit();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long rttNanos) {
+        int inFlightAtStart = inFlight.getAndDecrement();
+        synchronized (this) {
+            shortRtt = shortRtt == 0 ? rttNanos : shortRtt + SHORT_WINDOW_ALPHA * (rttNanos - shortRtt);
+            longRtt = longRtt == 0 ? rttNanos : longRtt + longWindowAlpha * (rttNanos - longRtt);
+
+            // Let the baseline recover quickly after a latency spike instead of locking in the degraded value
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+            // Without real demand the measured latency says nothing about a larger limit
+            if (inFlightAtStart < limit / 2) {
+                return;
+            }
+
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, longRtt / shortRtt));
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            update(limit * (1 - settings.smoothing()) + newLimit * settings.smoothing());
+        }
+    }
+
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            update(limit * settings.backoffRatio());
+        }
+    }
+
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void update(double newLimit) {
+        limit = Math.max(settings.minLimit(), Math.min(settings.maxLimit(), newLimit));
+    }
+}
@@ -0,0 +1,250 @@
+package org.example.productservice.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.productservice.config.ProductPageCacheProperties;
+import org.example.productservice.model.enums.ProductEventType;
+import org.example.productservice.service.event.ProductChangedEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+// Keeps the hottest unfiltered catalog pages as ready-to-send JSON and gzip bytes, so a hit skips the limiters,
+// the database and serialization entirely
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 150)
+@ConditionalOnProperty(prefix = "product-service.page-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProductPageCacheFilter extends OncePerRequestFilter {
+
+    private static final String CATALOG_PATH = "/api/products/";
+    private static final int DEFAULT_PAGE = 0;
+    private static final int DEFAULT_SIZE = 10;
+
+    private final ProductPageCacheProperties properties;
+    private final String cacheControl;
+    private final ObjectMapper objectMapper;
+    private final Cache<PageKey, CachedPage> pages;
+    private final Set<Render> rendering = ConcurrentHashMap.newKeySet();
+
+    public ProductPageCacheFilter(ProductPageCacheProperties properties, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.cacheControl = CacheControl.maxAge(properties.maxAge()).cachePublic().getHeaderValue();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.expireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "product-pages");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !CATALOG_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        PageKey key = cacheableKey(request);
+        if (key == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CachedPage cached = pages.getIfPresent(key);
+        if (cached != null) {
+            write(cached, request, response);
+            return;
+        }
+
+        Render render = new Render();
+        rendering.add(render);
+        try {
+            ContentCachingResponseWrapper capture = new ContentCachingResponseWrapper(response);
+            chain.doFilter(request, capture);
+            if (capture.getStatus() != HttpServletResponse.SC_OK) {
+                capture.copyBodyToResponse();
+                return;
+            }
+            byte[] body = capture.getContentAsByteArray();
+            CachedPage page = CachedPage.of(body, capture.getContentType(), capture.getHeader(HttpHeaders.ETAG),
+                    idRange(body));
+            pages.put(key, page);
+            // a change committed while the page was rendered must not leave the stale page behind; checked after
+            // the put, so a change either sees the page in the cache or is seen here
+            if (render.touches(page)) {
+                pages.asMap().remove(key, page);
+            }
+            write(page, request, response);
+        } finally {
+            rendering.remove(render);
+        }
+    }
+
+    // Pages follow the id order, so an update only touches the page holding its id. A new product changes the
+    // totals of every page and shifts the pages after it.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductEventType.CREATED) {
+            rendering.forEach(Render::reorder);
+            pages.invalidateAll();
+            return;
+        }
+        long id = event.productId();
+        rendering.forEach(render -> render.change(id));
+        pages.asMap().values().removeIf(page -> page.holds(id));
+    }
+
+    private long[] idRange(byte[] body) {
+        try {
+            JsonNode content = objectMapper.readTree(body).path("content");
+            if (content.isEmpty()) {
+                return new long[]{1, 0};
+            }
+            long firstId = content.get(0).path("id").asLong();
+            long lastId = content.get(content.size() - 1).path("id").asLong();
+            return new long[]{firstId, lastId};
+        } catch (JacksonException e) {
+            // any change may touch a page whose ids are unknown
+            return new long[]{Long.MIN_VALUE, Long.MAX_VALUE};
+        }
+    }
+
+    private PageKey cacheableKey(HttpServletRequest request) {
+        int page = DEFAULT_PAGE;
+        int size = DEFAULT_SIZE;
+        try {
+            for (Map.Entry<String, String[]> parameter : request.getParameterMap().entrySet()) {
+                String[] values = parameter.getValue();
+                if (values.length != 1) {
+                    return null;
+                }
+                switch (parameter.getKey()) {
+                    case "page" -> page = Integer.parseInt(values[0]);
+                    case "size" -> size = Integer.parseInt(values[0]);
+                    default -> {
+                        // filtered and keyset requests are not cached
+                        return null;
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (page < 0 || page >= properties.maxPage() || !properties.sizes().contains(size)) {
+            return null;
+        }
+        return new PageKey(page, size);
+    }
+
+    private void write(CachedPage page, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (page.eTag() != null && new ServletWebRequest(request, response).checkNotModified(page.eTag())) {
+            return;
+        }
+        byte[] body = page.identity();
+        if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = page.gzip();
+        }
+        response.setContentType(page.contentType());
+        response.setContentLength(body.length);
+        // the stored array goes to the connector as is, without copying or re-encoding
+        response.getOutputStream().write(body);
+    }
+
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length < 2 || !isZeroQuality(parts[1].trim());
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String parameter) {
+        if (!parameter.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(parameter.substring(2)) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private record PageKey(int page, int size) {
+    }
+
+    // Changes committed while a page renders
+    private static final class Render {
+
+        private final Set<Long> changedIds = ConcurrentHashMap.newKeySet();
+        private volatile boolean reordered;
+
+        void change(long id) {
+            changedIds.add(id);
+        }
+
+        void reorder() {
+            reordered = true;
+        }
+
+        boolean touches(CachedPage page) {
+            return reordered || changedIds.stream().anyMatch(page::holds);
+        }
+    }
+
+    private record CachedPage(byte[] identity, byte[] gzip, String contentType, String eTag, long firstId,
+                              long lastId) {
+
+        static CachedPage of(byte[] identity, String contentType, String eTag, long[] idRange) {
+            return new CachedPage(identity, gzip(identity), contentType, eTag, idRange[0], idRange[1]);
+        }
+
+        boolean holds(long id) {
+            return id >= firstId && id <= lastId;
+        }
+
+        private static byte[] gzip(byte[] bytes) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
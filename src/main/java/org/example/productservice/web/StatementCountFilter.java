@@ -0,0 +1,91 @@
+package org.example.productservice.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.config.StatementBudgetProperties;
+import org.example.productservice.metrics.SqlStatementCounter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    static final String SCOPE_ATTRIBUTE = StatementCountFilter.class.getName() + ".scope";
+
+    private final MeterRegistry meterRegistry;
+    private final StatementBudgetProperties budget;
+
+    public StatementCountFilter(MeterRegistry meterRegistry, StatementBudgetProperties budget) {
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean sampled = budget.enabled() && ThreadLocalRandom.current().nextDouble() < budget.sampleRate();
+        try (SqlStatementCounter.Scope statements =
+                     SqlStatementCounter.open(sampled ? budget.loggedStatements() : 0)) {
+            request.setAttribute(SCOPE_ATTRIBUTE, statements);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                // A streamed body runs its statements on another thread, so report once it has finished
+                if (request.isAsyncStarted()) {
+                    AsyncCompletion.whenDone(request, failure -> record(request, statements, sampled));
+                } else {
+                    record(request, statements, sampled);
+                }
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementCounter.Scope statements, boolean sampled) {
+        // Tag by route template, never by the raw URI, to keep cardinality bounded
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("product.http.statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statements.count());
+        if (sampled && statements.count() > budget.maxStatements()) {
+            reportOverBudget(request, uri, statements);
+        }
+    }
+
+    private void reportOverBudget(HttpServletRequest request, String uri, SqlStatementCounter.Scope statements) {
+        Counter.builder("product.http.statements.over-budget")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .increment();
+        log.atWarn()
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("endpoint", uri)
+                .addKeyValue("statements", statements.count())
+                .addKeyValue("budget", budget.maxStatements())
+                .addKeyValue("firstStatements", statements.captured())
+                .log("Request exceeded SQL statement budget");
+    }
+}
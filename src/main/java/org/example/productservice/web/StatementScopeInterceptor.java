@@ -0,0 +1,25 @@
+package org.example.productservice.web;
+
+import org.example.productservice.metrics.SqlStatementCounter;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+// Streaming bodies run on the MVC task executor; carry the request's statement scope over to that thread
+public class StatementScopeInterceptor implements CallableProcessingInterceptor {
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(StatementCountFilter.SCOPE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                instanceof SqlStatementCounter.Scope scope) {
+            SqlStatementCounter.attach(scope);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        SqlStatementCounter.detach();
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.productservice.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.productservice.controller.advice.GlobalExceptionHandler;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+final class TooManyRequestsResponses {
+
+    private TooManyRequestsResponses() {
+    }
+
+    static void write(HttpServletRequest request, HttpServletResponse response, ObjectMapper objectMapper,
+                      String retryAfterSeconds, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new GlobalExceptionHandler.ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                message,
+                LocalDateTime.now(),
+                "uri=" + request.getRequestURI()
+        ));
+    }
+}
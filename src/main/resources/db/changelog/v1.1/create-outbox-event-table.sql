@@ -0,0 +1,17 @@
+CREATE TABLE outbox_event (
+                              id BIGINT PRIMARY KEY,
+                              aggregate_id BIGINT NOT NULL,
+                              event_type VARCHAR(50) NOT NULL,
+                              payload TEXT NOT NULL,
+                              created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                              sent_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX idx_outbox_event_unsent ON outbox_event (id) WHERE sent_at IS NULL;
+
+CREATE SEQUENCE outbox_event_seq
+    START WITH 50
+    INCREMENT BY 50
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
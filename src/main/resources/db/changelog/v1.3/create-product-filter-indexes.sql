@@ -0,0 +1,5 @@
+CREATE INDEX idx_product_category_price ON product (category, price);
+
+CREATE INDEX idx_product_in_stock ON product (id) WHERE amount > 0;
+
+CREATE INDEX idx_product_name_pattern ON product (name text_pattern_ops);
@@ -0,0 +1,7 @@
+CREATE TABLE consumer_offset (
+                                 consumer_group VARCHAR(255) NOT NULL,
+                                 topic VARCHAR(255) NOT NULL,
+                                 partition_id INTEGER NOT NULL,
+                                 next_offset BIGINT NOT NULL,
+                                 PRIMARY KEY (consumer_group, topic, partition_id)
+);
@@ -0,0 +1,62 @@
+--liquibase formatted sql
+
+--changeset product-service:add-product-change-sequence
+--comment: Nullable columns without a default need no table rewrite; the defaults set afterwards only apply to new rows
+CREATE SEQUENCE product_change_seq;
+ALTER TABLE product
+    ADD COLUMN change_seq BIGINT,
+    ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE product
+    ALTER COLUMN change_seq SET DEFAULT nextval('product_change_seq'),
+    ALTER COLUMN updated_at SET DEFAULT clock_timestamp();
+
+--changeset product-service:create-product-change-trigger splitStatements:false
+CREATE FUNCTION product_touch_change() RETURNS trigger AS $$
+BEGIN
+    NEW.change_seq := nextval('product_change_seq');
+    NEW.updated_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+--changeset product-service:attach-product-change-trigger
+CREATE TRIGGER product_touch_change BEFORE UPDATE ON product
+    FOR EACH ROW EXECUTE FUNCTION product_touch_change();
+
+--changeset product-service:backfill-product-change-sequence runInTransaction:false splitStatements:false
+--comment: Commits every batch, so row locks are short and concurrent writers are never blocked for long
+DO $$
+DECLARE
+    batch_start BIGINT;
+    last_id BIGINT;
+BEGIN
+    SELECT min(id), max(id) INTO batch_start, last_id FROM product;
+    WHILE batch_start <= last_id LOOP
+        UPDATE product
+        SET change_seq = nextval('product_change_seq'),
+            updated_at = clock_timestamp()
+        WHERE id >= batch_start AND id < batch_start + 10000 AND change_seq IS NULL;
+        COMMIT;
+        batch_start := batch_start + 10000;
+    END LOOP;
+END;
+$$;
+
+--changeset product-service:add-product-change-sequence-check
+--comment: NOT VALID skips the scan, so the exclusive lock is released as soon as the constraint is recorded
+ALTER TABLE product
+    ADD CONSTRAINT product_change_seq_not_null CHECK (change_seq IS NOT NULL AND updated_at IS NOT NULL) NOT VALID;
+
+--changeset product-service:validate-product-change-sequence-check
+--comment: Committed on its own, so the full scan holds only a SHARE UPDATE EXCLUSIVE lock and writers keep running
+ALTER TABLE product VALIDATE CONSTRAINT product_change_seq_not_null;
+
+--changeset product-service:require-product-change-sequence
+--comment: The validated CHECK lets SET NOT NULL skip its full table scan under the exclusive lock
+ALTER TABLE product
+    ALTER COLUMN change_seq SET NOT NULL,
+    ALTER COLUMN updated_at SET NOT NULL;
+ALTER TABLE product DROP CONSTRAINT product_change_seq_not_null;
+
+--changeset product-service:create-product-change-sequence-index runInTransaction:false
+CREATE UNIQUE INDEX CONCURRENTLY idx_product_change_seq ON product (change_seq);
@@ -0,0 +1,16 @@
+--liquibase formatted sql
+
+--changeset product-service:order-product-changes-by-transaction splitStatements:false
+--comment: The writing transaction id leads the sequence, so a transaction still running when the feed reads can only commit changes above the feed's horizon
+CREATE OR REPLACE FUNCTION product_touch_change() RETURNS trigger AS $$
+BEGIN
+    NEW.change_seq := (pg_current_xact_id()::text::bigint << 20) | (nextval('product_change_seq') & 1048575);
+    NEW.updated_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+--changeset product-service:touch-product-change-on-insert
+DROP TRIGGER product_touch_change ON product;
+CREATE TRIGGER product_touch_change BEFORE INSERT OR UPDATE ON product
+    FOR EACH ROW EXECUTE FUNCTION product_touch_change();
@@ -0,0 +1,150 @@
+package org.example.productservice;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.productservice.config.AdmissionProperties;
+import org.example.productservice.exception.AdmissionRejectedException;
+import org.example.productservice.web.AdmissionControl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdmissionControlTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AdmissionControl admission = new AdmissionControl(
+            new AdmissionProperties(true, 1, 0, Duration.ofMillis(20), Duration.ofMillis(1500)),
+            null, meterRegistry);
+
+    private final AbstractPlatformTransactionManager transactionManager = new AbstractPlatformTransactionManager() {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        transactionManager.setTransactionExecutionListeners(List.of(admission));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void beginTransaction_inRequest_shouldHoldPermitUntilCompletion() {
+        bindRequest(new MockHttpServletRequest("GET", "/api/products/1"));
+
+        TransactionStatus committed = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        assertThat(available()).isZero();
+        transactionManager.commit(committed);
+        assertThat(available()).isEqualTo(1);
+
+        TransactionStatus rolledBack = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        assertThat(available()).isZero();
+        transactionManager.rollback(rolledBack);
+        assertThat(available()).isEqualTo(1);
+    }
+
+    @Test
+    void beginTransaction_whenWaitBudgetExceeded_shouldRejectWithRetryAfter() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<TransactionStatus> holder = executor.submit(() -> {
+                bindRequest(new MockHttpServletRequest("GET", "/api/products/1"));
+                return transactionManager.getTransaction(new DefaultTransactionDefinition());
+            });
+            holder.get();
+
+            bindRequest(new MockHttpServletRequest("GET", "/api/products/2"));
+            assertThatThrownBy(() -> transactionManager.getTransaction(new DefaultTransactionDefinition()))
+                    .isInstanceOfSatisfying(AdmissionRejectedException.class,
+                            rejected -> assertThat(rejected.getRetryAfterSeconds()).isEqualTo(2));
+            assertThat(meterRegistry.get("product.admission.rejected").counter().count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void beginTransaction_whenWritesHoldTheirShare_shouldStillAdmitReads() throws Exception {
+        AdmissionControl reserving = new AdmissionControl(
+                new AdmissionProperties(true, 2, 1, Duration.ofMillis(20), Duration.ofMillis(1500)),
+                null, new SimpleMeterRegistry());
+        transactionManager.setTransactionExecutionListeners(List.of(reserving));
+        DefaultTransactionDefinition readOnly = new DefaultTransactionDefinition();
+        readOnly.setReadOnly(true);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> {
+                bindRequest(new MockHttpServletRequest("POST", "/api/products/bulk"));
+                return transactionManager.getTransaction(new DefaultTransactionDefinition());
+            }).get();
+
+            bindRequest(new MockHttpServletRequest("POST", "/api/products/bulk"));
+            assertThatThrownBy(() -> transactionManager.getTransaction(new DefaultTransactionDefinition()))
+                    .isInstanceOf(AdmissionRejectedException.class);
+
+            bindRequest(new MockHttpServletRequest("GET", "/api/products/1"));
+            transactionManager.commit(transactionManager.getTransaction(readOnly));
+        }
+    }
+
+    @Test
+    void beginTransaction_outsideRequest_shouldNotTakePermit() {
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+
+        assertThat(available()).isEqualTo(1);
+        transactionManager.commit(status);
+    }
+
+    @Test
+    void beginTransaction_forStreamedResponse_shouldNotTakePermit() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/export");
+        request.setAsyncSupported(true);
+        request.startAsync(request, new MockHttpServletResponse());
+        bindRequest(request);
+
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+
+        assertThat(available()).isEqualTo(1);
+        transactionManager.commit(status);
+    }
+
+    private double available() {
+        return meterRegistry.get("product.admission.available").gauge().value();
+    }
+
+    private static void bindRequest(MockHttpServletRequest request) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.productservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Drives the same over-capacity constant-rate load against a platform-thread server without admission control
+// and against virtual threads with the admission limiter, then compares the latency of admitted requests.
+@Slf4j
+@Tag("benchmark")
+public class AdmissionOverloadBenchmarkTests {
+
+    private static final int CATALOG_SIZE = Integer.getInteger("load.catalog-size", 200_000);
+    private static final int RATE = Integer.getInteger("load.rate", 1_500);
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT20S"));
+    private static final long HIGHEST_TRACKABLE_LATENCY = TimeUnit.SECONDS.toNanos(120);
+
+    @Test
+    void compareTailLatencyUnderOverload() throws Exception {
+        Result baseline = run("platform threads, no admission",
+                "--spring.threads.virtual.enabled=false", "--product-service.admission.enabled=false");
+        Result admitted = run("virtual threads + admission",
+                "--spring.threads.virtual.enabled=true", "--product-service.admission.enabled=true");
+
+        log.info(String.format("%-32s %10s %10s %10s %10s %10s %10s",
+                "mode", "ok req/s", "429", "errors", "p50 (ms)", "p99 (ms)", "p999 (ms)"));
+        baseline.print();
+        admitted.print();
+
+        assertThat(admitted.failures).hasValue(0);
+    }
+
+    private Result run(String mode, String... args) throws Exception {
+        String[] arguments = new String[args.length + 3];
+        System.arraycopy(args, 0, arguments, 0, args.length);
+        arguments[args.length] = "--server.port=0";
+        arguments[args.length + 1] = "--product-service.outbox.relay-enabled=false";
+        arguments[args.length + 2] = "--product-service.concurrency-limit.enabled=false";
+
+        try (ConfigurableApplicationContext context = SpringApplication.from(ProductServiceApplication::main)
+                .with(TestcontainersConfiguration.class)
+                .run(arguments)
+                .getApplicationContext();
+             HttpClient client = HttpClient.newBuilder()
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            BenchmarkCatalog.of(CATALOG_SIZE)
+                    .category(BenchmarkCatalog.ANY_CATEGORY)
+                    .amount("g % 10")
+                    .seed(context.getBean(JdbcTemplate.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            drive(client, port, WARMUP, new Result(mode));
+            Result result = new Result(mode);
+            drive(client, port, DURATION, result);
+            return result;
+        }
+    }
+
+    private void drive(HttpClient client, int port, Duration duration, Result result) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long requests = duration.toSeconds() * RATE;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            for (long i = 0; i < requests; i++) {
+                long intendedStart = start + i * intervalNanos;
+                LockSupport.parkNanos(intendedStart - System.nanoTime());
+                // Database-bound pages: offset page with a count query over a filtered range
+                URI uri = URI.create("http://localhost:" + port + "/api/products/?size=20&inStock=true"
+                        + "&page=" + ThreadLocalRandom.current().nextInt(50)
+                        + "&minPrice=" + ThreadLocalRandom.current().nextInt(500) + "&maxPrice=1000");
+                workers.execute(() -> result.record(client, uri, intendedStart));
+            }
+        }
+        result.duration = duration;
+    }
+
+    private static final class Result {
+
+        private final String mode;
+        private final Recorder admitted = new Recorder(HIGHEST_TRACKABLE_LATENCY, 3);
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private Duration duration;
+
+        private Result(String mode) {
+            this.mode = mode;
+        }
+
+        void record(HttpClient client, URI uri, long intendedStart) {
+            try {
+                int status = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                        HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 429) {
+                    rejected.incrementAndGet();
+                    return;
+                }
+                if (status >= 500) {
+                    failures.incrementAndGet();
+                    return;
+                }
+                admitted.recordValue(Math.min(System.nanoTime() - intendedStart, HIGHEST_TRACKABLE_LATENCY));
+            } catch (IOException | InterruptedException e) {
+                failures.incrementAndGet();
+            }
+        }
+
+        void print() {
+            Histogram histogram = admitted.getIntervalHistogram();
+            log.info(String.format("%-32s %10.1f %10d %10d %10.2f %10.2f %10.2f",
+                    mode,
+                    histogram.getTotalCount() / (double) duration.toSeconds(),
+                    rejected.get(),
+                    failures.get(),
+                    histogram.getValueAtPercentile(50) / 1_000_000.0,
+                    histogram.getValueAtPercentile(99) / 1_000_000.0,
+                    histogram.getValueAtPercentile(99.9) / 1_000_000.0));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.productservice;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Product rows the benchmarks run against, seeded with one generate_series insert. Columns are SQL expressions
+// over the generated id g, so a benchmark overrides only the columns its workload depends on.
+final class BenchmarkCatalog {
+
+    static final String ANY_CATEGORY = "(ARRAY['SMARTPHONES', 'LAPTOPS', 'HEADPHONES', 'TV'])[1 + g % 4]";
+
+    private final int size;
+    private String name = "'product-' || g";
+    private String description = "'description-' || g";
+    private String price = "1 + g % 1000";
+    private String category = "'TV'";
+    private String amount = "g % 100";
+    private String from = "";
+
+    private BenchmarkCatalog(int size) {
+        this.size = size;
+    }
+
+    static BenchmarkCatalog of(int size) {
+        return new BenchmarkCatalog(size);
+    }
+
+    static void truncate(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("TRUNCATE product, outbox_event, consumer_offset");
+    }
+
+    BenchmarkCatalog name(String expression) {
+        this.name = expression;
+        return this;
+    }
+
+    BenchmarkCatalog description(String expression) {
+        this.description = expression;
+        return this;
+    }
+
+    BenchmarkCatalog price(String expression) {
+        this.price = expression;
+        return this;
+    }
+
+    BenchmarkCatalog category(String expression) {
+        this.category = expression;
+        return this;
+    }
+
+    BenchmarkCatalog amount(String expression) {
+        this.amount = expression;
+        return this;
+    }
+
+    // extra FROM items, e.g. word lists, the column expressions can refer to
+    BenchmarkCatalog from(String fromItems) {
+        this.from = ",\n" + fromItems;
+        return this;
+    }
+
+    void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+                INSERT INTO product (id, name, description, price, category, amount)
+                SELECT g, %s, %s, %s, %s, %s
+                FROM generate_series(1, ?) AS g%s
+                """.formatted(name, description, price, category, amount, from), size);
+        // Keep ids handed out by the pooled sequence optimizer clear of the seeded range
+        jdbcTemplate.queryForObject("SELECT setval('product_seq', ?)", Long.class, size + 50L);
+        jdbcTemplate.execute("VACUUM ANALYZE product");
+    }
+}
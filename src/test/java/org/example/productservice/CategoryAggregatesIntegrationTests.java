@@ -0,0 +1,110 @@
+package org.example.productservice;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.productservice.dto.CategoryAggregate;
+import org.example.productservice.dto.ProductAggregates;
+import org.example.productservice.dto.ProductRequest;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.model.enums.Category;
+import org.example.productservice.service.ProductService;
+import org.example.productservice.service.aggregate.CategoryAggregates;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = "product-service.outbox.relay-enabled=false")
+@Import(TestcontainersConfiguration.class)
+public class CategoryAggregatesIntegrationTests {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private CategoryAggregates aggregates;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE product, outbox_event");
+        // other tests truncate without events, start from the database state
+        aggregates.reconcile();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE product, outbox_event");
+    }
+
+    @Test
+    void shouldKeepAggregatesInStepWithMutationsWithoutDrift() {
+        ProductResponse phone = service.createProduct(request("phone", Category.SMARTPHONES, "100.00", 3));
+        ProductResponse tv = service.createProduct(request("tv", Category.TV, "500.00", 2));
+        service.updateProduct(phone.id(), request("laptop", Category.LAPTOPS, "800.00", 3), null);
+        service.reserveStock(tv.id(), 2);
+        service.releaseStock(tv.id(), 1);
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            ProductAggregates snapshot = aggregates.snapshot();
+            assertThat(snapshot.categories().get(Category.SMARTPHONES)).satisfies(aggregate(0, 0, "0", 0));
+            assertThat(snapshot.categories().get(Category.LAPTOPS)).satisfies(aggregate(1, 3, "2400", 0));
+            assertThat(snapshot.categories().get(Category.TV)).satisfies(aggregate(1, 1, "500", 0));
+        });
+
+        double drift = meterRegistry.counter("product.aggregates.reconciliations", "result", "drift").count();
+        aggregates.reconcile();
+
+        assertThat(meterRegistry.counter("product.aggregates.reconciliations", "result", "drift").count())
+                .isEqualTo(drift);
+        assertThat(aggregates.snapshot().total()).satisfies(aggregate(2, 4, "2900", 0));
+    }
+
+    @Test
+    void shouldCorrectDriftOnReconciliation() {
+        jdbcTemplate.update("""
+                INSERT INTO product (id, name, description, price, category, amount)
+                SELECT g, 'product-' || g, NULL, 10, 'HEADPHONES', g % 2
+                FROM generate_series(1, 10) AS g
+                """);
+
+        aggregates.reconcile();
+
+        assertThat(aggregates.snapshot().categories().get(Category.HEADPHONES)).satisfies(aggregate(10, 5, "50", 5));
+        assertThat(aggregates.snapshot().reconciledAt()).isNotNull();
+    }
+
+    private static Consumer<CategoryAggregate> aggregate(long products, long units,
+                                                       String stockValue, long outOfStock) {
+        return aggregate -> {
+            assertThat(aggregate.products()).isEqualTo(products);
+            assertThat(aggregate.units()).isEqualTo(units);
+            assertThat(aggregate.stockValue()).isEqualByComparingTo(stockValue);
+            assertThat(aggregate.outOfStock()).isEqualTo(outOfStock);
+        };
+    }
+
+    private static ProductRequest request(String name, Category category, String price, int amount) {
+        return ProductRequest.builder()
+                .name(name)
+                .description(name + "-desc")
+                .price(new BigDecimal(price))
+                .category(category)
+                .amount(amount)
+                .build();
+    }
+}
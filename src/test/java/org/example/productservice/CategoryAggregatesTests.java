@@ -0,0 +1,125 @@
+package org.example.productservice;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.productservice.dto.CategoryAggregate;
+import org.example.productservice.dto.ProductAggregates;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.model.enums.Category;
+import org.example.productservice.repository.ProductRepository;
+import org.example.productservice.service.aggregate.CategoryAggregates;
+import org.example.productservice.service.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CategoryAggregatesTests {
+
+    @Mock
+    private ProductRepository repository;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private JdbcClient jdbcClient;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CategoryAggregates aggregates;
+
+    @BeforeEach
+    void setUp() {
+        aggregates = new CategoryAggregates(repository, jdbcClient, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void onProductChanged_shouldApplyCreatesAndUpdatesImmediately() {
+        ProductResponse phone = product(1L, Category.SMARTPHONES, "100.00", 3);
+        ProductResponse tv = product(2L, Category.TV, "500.00", 0);
+        aggregates.onProductChanged(ProductChangedEvent.created(phone));
+        aggregates.onProductChanged(ProductChangedEvent.created(tv));
+
+        // The phone moves to laptops and sells out
+        aggregates.onProductChanged(ProductChangedEvent.updated(phone, product(1L, Category.LAPTOPS, "120.00", 0)));
+
+        ProductAggregates snapshot = aggregates.snapshot();
+        assertThat(snapshot.categories().get(Category.SMARTPHONES)).isEqualTo(aggregate(0, 0, "0.00", 0));
+        assertThat(snapshot.categories().get(Category.LAPTOPS)).isEqualTo(aggregate(1, 0, "0.00", 1));
+        assertThat(snapshot.categories().get(Category.TV)).isEqualTo(aggregate(1, 0, "0.00", 1));
+        assertThat(snapshot.total()).isEqualTo(aggregate(2, 0, "0.00", 2));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void reconcile_shouldReplayOnlyChangesTheSnapshotMissed() throws Exception {
+        ProductResponse phone = product(1L, Category.TV, "10.00", 8, 1L);
+        ProductResponse tv = product(2L, Category.TV, "7.00", 4, 3L);
+        JdbcClient.StatementSpec scan = jdbcClient.sql(anyString()).withFetchSize(anyInt());
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(0);
+            handler.processRow(row("TV", "10.00", 5));
+            // Committed before the snapshot was taken, so the scan already counts it
+            aggregates.onProductChanged(ProductChangedEvent.stockChanged(phone, product(1L, Category.TV, "10.00", 5, 2L)));
+            // Committed after the snapshot was taken
+            aggregates.onProductChanged(ProductChangedEvent.stockChanged(tv, product(2L, Category.TV, "7.00", 1, 4L)));
+            aggregates.onProductChanged(ProductChangedEvent.created(product(3L, Category.TV, "1.00", 2, 0L)));
+            handler.processRow(row("TV", "7.00", 4));
+            return null;
+        }).when(scan).query(any(RowCallbackHandler.class));
+        when(repository.findVersionsByIds(List.of(1L, 2L, 3L))).thenReturn(Map.of(1L, 2L, 2L, 3L));
+
+        aggregates.reconcile();
+
+        assertThat(aggregates.snapshot().categories().get(Category.TV)).isEqualTo(aggregate(3, 8, "59.00", 0));
+    }
+
+    private static ResultSet row(String category, String price, int amount) throws SQLException {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString("category")).thenReturn(category);
+        when(row.getBigDecimal("price")).thenReturn(new BigDecimal(price));
+        when(row.getInt("amount")).thenReturn(amount);
+        return row;
+    }
+
+    private static ProductResponse product(Long id, Category category, String price, int amount, Long version) {
+        return ProductResponse.builder()
+                .id(id)
+                .category(category)
+                .price(new BigDecimal(price))
+                .amount(amount)
+                .version(version)
+                .build();
+    }
+
+    private static ProductResponse product(Long id, Category category, String price, int amount) {
+        return ProductResponse.builder()
+                .id(id)
+                .category(category)
+                .price(new BigDecimal(price))
+                .amount(amount)
+                .build();
+    }
+
+    private static CategoryAggregate aggregate(long products, long units, String stockValue, long outOfStock) {
+        return CategoryAggregate.builder()
+                .products(products)
+                .units(units)
+                .stockValue(new BigDecimal(stockValue))
+                .outOfStock(outOfStock)
+                .build();
+    }
+}
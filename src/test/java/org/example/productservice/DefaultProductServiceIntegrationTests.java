@@ -1,9 +1,11 @@
 package org.example.productservice;
 
 
+import jakarta.persistence.EntityManager;
 import org.example.productservice.dto.ProductRequest;
 import org.example.productservice.dto.ProductResponse;
 import org.example.productservice.exception.ProductNotFoundException;
+import org.example.productservice.metrics.SqlStatementCounter;
 import org.example.productservice.model.enums.Category;
 import org.example.productservice.service.ProductService;
 import org.junit.jupiter.api.Test;
@@ -16,6 +18,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -28,6 +32,8 @@ public class DefaultProductServiceIntegrationTests {
     @Autowired
     private ProductService service;
 
+    @Autowired
+    private EntityManager entityManager;
 
     @Test
     void shouldCreateAndFindProduct() {
@@ -92,4 +98,83 @@ public class DefaultProductServiceIntegrationTests {
         assertThat(page.getContent()).extracting(ProductResponse::amount)
                 .containsExactly(5, 3);
     }
+
+    @Test
+    void shouldExportAllProductsOrderedById() {
+        ProductResponse first = service.createProduct(ProductRequest.builder()
+                .name("test")
+                .description("test-desc")
+                .price(BigDecimal.TEN)
+                .category(Category.SMARTPHONES)
+                .amount(5)
+                .build());
+        ProductResponse second = service.createProduct(ProductRequest.builder()
+                .name("test2")
+                .description("test-desc2")
+                .price(BigDecimal.TWO)
+                .category(Category.TV)
+                .amount(3)
+                .build());
+
+        List<ProductResponse> exported = new ArrayList<>();
+        service.exportProducts(exported::add);
+
+        assertThat(exported).containsExactly(first, second);
+    }
+
+    @Test
+    void shouldLoadProductByIdWithSingleStatementThenServeFromCache() {
+        ProductResponse created = service.createProduct(ProductRequest.builder()
+                .name("test")
+                .price(BigDecimal.TEN)
+                .category(Category.SMARTPHONES)
+                .amount(5)
+                .build());
+
+        assertThat(statementsDuring(() -> service.findProductById(created.id()))).isEqualTo(1);
+        assertThat(statementsDuring(() -> service.findProductById(created.id()))).isZero();
+    }
+
+    @Test
+    void shouldIssueCountQueryOnlyWhenPageIsFull() {
+        service.createProduct(ProductRequest.builder()
+                .name("test")
+                .price(BigDecimal.TEN)
+                .category(Category.SMARTPHONES)
+                .amount(5)
+                .build());
+        service.createProduct(ProductRequest.builder()
+                .name("test2")
+                .price(BigDecimal.TWO)
+                .category(Category.TV)
+                .amount(3)
+                .build());
+
+        assertThat(statementsDuring(() -> service.findPageOfProducts(PageRequest.of(0, 10)))).isEqualTo(1);
+        assertThat(statementsDuring(() -> service.findPageOfProducts(PageRequest.of(0, 1)))).isEqualTo(2);
+    }
+
+    @Test
+    void shouldExportWithSingleStatement() {
+        for (int i = 0; i < 3; i++) {
+            service.createProduct(ProductRequest.builder()
+                    .name("test" + i)
+                    .price(BigDecimal.TEN)
+                    .category(Category.TV)
+                    .amount(1)
+                    .build());
+        }
+
+        assertThat(statementsDuring(() -> service.exportProducts(product -> {
+        }))).isEqualTo(1);
+    }
+
+    // Flushes pending inserts first so only the statements issued by the call itself are counted
+    private int statementsDuring(Runnable call) {
+        entityManager.flush();
+        try (SqlStatementCounter.Scope statements = SqlStatementCounter.open()) {
+            call.run();
+            return statements.count();
+        }
+    }
 }
@@ -1,25 +1,84 @@
 package org.example.productservice;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.example.productservice.config.ProductBulkProperties;
+import org.example.productservice.config.ProductChangeFeedProperties;
+import org.example.productservice.config.ProductCacheProperties;
+import org.example.productservice.config.ProductCountProperties;
+import org.example.productservice.config.ProductReadProperties;
+import org.example.productservice.config.SingleFlightProperties;
+import org.example.productservice.dto.BulkProductResponse;
+import org.example.productservice.dto.BulkProductResult;
+import org.example.productservice.dto.ProductBatchResponse;
+import org.example.productservice.dto.ProductChange;
+import org.example.productservice.dto.ProductCursor;
+import org.example.productservice.dto.ProductCursorPage;
+import org.example.productservice.dto.ProductFilter;
+import org.example.productservice.dto.ProductPage;
 import org.example.productservice.dto.ProductRequest;
 import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.dto.ProductSearchCursor;
+import org.example.productservice.dto.StockChange;
+import org.example.productservice.dto.StockResponse;
+import org.example.productservice.exception.InsufficientStockException;
+import org.example.productservice.exception.InvalidCursorException;
 import org.example.productservice.exception.ProductNotFoundException;
+import org.example.productservice.exception.ProductVersionMismatchException;
+import org.example.productservice.exception.StockLimitExceededException;
 import org.example.productservice.model.entity.Product;
 import org.example.productservice.model.enums.Category;
+import org.example.productservice.model.enums.ProductEventType;
+import org.example.productservice.outbox.OutboxWriter;
+import org.example.productservice.repository.ProductBatchRepository.AppliedUpdate;
 import org.example.productservice.repository.ProductRepository;
+import org.example.productservice.repository.ProductSearchRepository.SearchHit;
+import org.example.productservice.service.aggregate.CategoryAggregates;
+import org.example.productservice.service.cache.ProductCache;
+import org.example.productservice.service.count.ProductCounts;
+import org.example.productservice.service.event.ProductChangedEvent;
 import org.example.productservice.service.impl.DefaultProductService;
+import org.example.productservice.service.stock.StockDecrementCoalescer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.exc.StreamReadException;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -31,6 +90,54 @@ public class DefaultProductServiceTests {
     @Mock
     private ProductRepository repository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private StockDecrementCoalescer stockCoalescer;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ProductCounts productCounts;
+
+    @Mock
+    private CategoryAggregates categoryAggregates;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ProductBulkProperties bulkProperties = new ProductBulkProperties(2);
+
+    @Spy
+    private ProductCache cache = new ProductCache(
+            new ProductCacheProperties(100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1)), new SimpleMeterRegistry());
+
+    @Spy
+    private ProductReadProperties readProperties = new ProductReadProperties(
+            ProductReadProperties.Mode.ENTITY, ProductReadProperties.Mode.ENTITY, ProductReadProperties.Mode.ENTITY);
+
+    @Spy
+    private ProductCountProperties countProperties = new ProductCountProperties(
+            ProductCountProperties.Mode.EXACT, Duration.ofSeconds(30), 100);
+
+    @Spy
+    private SingleFlightProperties singleFlightProperties = new SingleFlightProperties(true, Duration.ofSeconds(5));
+
+    @Spy
+    private ProductChangeFeedProperties changeFeedProperties = new ProductChangeFeedProperties(100);
+
     @InjectMocks
     private DefaultProductService service;
 
@@ -61,6 +168,102 @@ public class DefaultProductServiceTests {
         verify(repository, times(1)).findById(any(Long.class));
     }
 
+    @Test
+    void findProductById_whenCalledTwice_shouldServeSecondCallFromCache() {
+        Long id = 1L;
+
+        when(repository.findById(id)).thenReturn(Optional.of(Product.builder()
+                .id(id)
+                .name("test")
+                .price(BigDecimal.TEN)
+                .amount(5)
+                .build()));
+
+        ProductResponse first = service.findProductById(id);
+        ProductResponse second = service.findProductById(id);
+
+        assertThat(second).isEqualTo(first);
+        verify(repository, times(1)).findById(id);
+    }
+
+    @Test
+    void findProductById_withProjectionReadPath_shouldSkipEntityLoading() {
+        ProductResponse projected = ProductResponse.builder()
+                .id(1L)
+                .name("test")
+                .price(BigDecimal.TEN)
+                .amount(5)
+                .version(0L)
+                .build();
+
+        doReturn(ProductReadProperties.Mode.PROJECTION).when(readProperties).byId();
+        when(repository.findResponseById(1L)).thenReturn(Optional.of(projected));
+
+        assertThat(service.findProductById(1L)).isSameAs(projected);
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void findProductById_withConcurrentBurstOnColdEntry_shouldQueryDatabaseOnce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findById(1L)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return Optional.of(product(1L));
+        });
+
+        // platform threads, so a blocked leader cannot hold back the rest of the burst on a single carrier
+        try (ExecutorService executor = Executors.newCachedThreadPool()) {
+            List<Future<ProductResponse>> results = new ArrayList<>();
+            results.add(executor.submit(() -> service.findProductById(1L)));
+            started.await();
+            CountDownLatch burst = new CountDownLatch(99);
+            for (int i = 0; i < 99; i++) {
+                results.add(executor.submit(() -> {
+                    burst.countDown();
+                    return service.findProductById(1L);
+                }));
+            }
+            // callers that miss the flight find the leader's result in the cache, so one query holds either way
+            burst.await();
+            release.countDown();
+
+            for (Future<ProductResponse> result : results) {
+                assertThat(result.get().id()).isEqualTo(1L);
+            }
+        }
+        verify(repository, times(1)).findById(1L);
+    }
+
+    @Test
+    void findProductById_whenChangedDuringInFlightLoad_shouldNotJoinStaleFlight() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Product updated = product(1L);
+        updated.setName("updated");
+        when(repository.findById(1L))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await();
+                    return Optional.of(product(1L));
+                })
+                .thenReturn(Optional.of(updated));
+
+        try (ExecutorService executor = Executors.newCachedThreadPool()) {
+            Future<ProductResponse> stale = executor.submit(() -> service.findProductById(1L));
+            started.await();
+            ProductResponse changed = ProductResponse.builder().id(1L).build();
+            cache.onProductChanged(ProductChangedEvent.updated(changed, changed));
+
+            assertThat(service.findProductById(1L).name()).isEqualTo("updated");
+            release.countDown();
+            assertThat(stale.get().name()).isNotEqualTo("updated");
+        }
+        assertThat(service.findProductById(1L).name()).isEqualTo("updated");
+        verify(repository, times(2)).findById(1L);
+    }
+
     @Test
     void findProductById_whenProductNotFound_shouldThrowException() {
         Long nonExistenceId = 999L;
@@ -72,6 +275,48 @@ public class DefaultProductServiceTests {
                 .hasMessageContaining(nonExistenceId.toString());
     }
 
+    @Test
+    void findProductById_whenProductNotFoundTwice_shouldSkipRepositoryOnSecondCall() {
+        Long nonExistenceId = 999L;
+
+        when(repository.findById(nonExistenceId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.findProductById(nonExistenceId))
+                .isInstanceOf(ProductNotFoundException.class);
+        assertThatThrownBy(() -> service.findProductById(nonExistenceId))
+                .isInstanceOf(ProductNotFoundException.class)
+                .satisfies(ex -> assertThat(ex.getStackTrace()).isEmpty());
+        verify(repository, times(1)).findById(nonExistenceId);
+    }
+
+    @Test
+    void findProductsByIds_shouldKeepRequestOrderAndReportMissingIds() {
+        ProductResponse cached = ProductResponse.builder().id(3L).name("cached").build();
+        cache.get(3L, id -> cached);
+        when(repository.findResponsesByIds(List.of(7L, 1L, 9L))).thenReturn(List.of(
+                ProductResponse.builder().id(1L).build(),
+                ProductResponse.builder().id(7L).build()
+        ));
+
+        ProductBatchResponse response = service.findProductsByIds(List.of(7L, 3L, 1L, 7L, 9L));
+
+        assertThat(response.products()).extracting(ProductResponse::id).containsExactly(7L, 3L, 1L);
+        assertThat(response.missing()).containsExactly(9L);
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void exportChanges_shouldCapLimit() {
+        ProductChange change = ProductChange.builder().changeSeq(8L).product(ProductResponse.builder().id(1L).build())
+                .build();
+        when(repository.streamChangesAfter(7L, 100)).thenReturn(Stream.of(change));
+        List<ProductChange> changes = new ArrayList<>();
+
+        service.exportChanges(7L, 50_000, changes::add);
+
+        assertThat(changes).containsExactly(change);
+    }
+
     @Test
     void createProduct_withValidRequest_shouldSaveAndReturnNewProduct() {
         ProductRequest request = ProductRequest.builder()
@@ -103,6 +348,68 @@ public class DefaultProductServiceTests {
         assertThat(response.category()).isEqualTo(savedProduct.getCategory());
         assertThat(response.amount()).isEqualTo(savedProduct.getAmount());
         verify(repository, times(1)).save(any(Product.class));
+        verify(eventPublisher, times(1)).publishEvent(ProductChangedEvent.created(response));
+        verify(outboxWriter, times(1)).append(ProductEventType.CREATED, response.id(), response);
+    }
+
+    @Test
+    void updateProduct_withMatchingVersion_shouldApplyChangesAndPublishUpdate() {
+        Product product = Product.builder()
+                .id(1L)
+                .name("old")
+                .price(BigDecimal.ONE)
+                .category(Category.SMARTPHONES)
+                .amount(1)
+                .version(3L)
+                .build();
+        ProductRequest request = ProductRequest.builder()
+                .name("new")
+                .description("new-desc")
+                .price(BigDecimal.TEN)
+                .category(Category.LAPTOPS)
+                .amount(7)
+                .build();
+
+        when(repository.findById(1L)).thenReturn(Optional.of(product));
+
+        ProductResponse response = service.updateProduct(1L, request, "3");
+
+        assertThat(response.name()).isEqualTo("new");
+        assertThat(response.price()).isEqualTo(BigDecimal.TEN);
+        assertThat(response.category()).isEqualTo(Category.LAPTOPS);
+        assertThat(response.amount()).isEqualTo(7);
+        verify(repository).flush();
+        verify(outboxWriter).append(ProductEventType.UPDATED, 1L, response);
+        ProductResponse previous = ProductResponse.builder()
+                .id(1L)
+                .name("old")
+                .price(BigDecimal.ONE)
+                .category(Category.SMARTPHONES)
+                .amount(1)
+                .version(3L)
+                .build();
+        verify(eventPublisher).publishEvent(ProductChangedEvent.updated(previous, response));
+    }
+
+    @Test
+    void updateProduct_withStaleVersion_shouldThrowException() {
+        when(repository.findById(1L)).thenReturn(Optional.of(Product.builder()
+                .id(1L)
+                .name("old")
+                .price(BigDecimal.ONE)
+                .amount(1)
+                .version(4L)
+                .build()));
+        ProductRequest request = ProductRequest.builder()
+                .name("new")
+                .price(BigDecimal.TEN)
+                .amount(1)
+                .build();
+
+        assertThatThrownBy(() -> service.updateProduct(1L, request, "3"))
+                .isInstanceOf(ProductVersionMismatchException.class);
+        verify(repository, never()).flush();
+        verifyNoInteractions(outboxWriter, eventPublisher);
     }
 
 
@@ -152,6 +459,67 @@ public class DefaultProductServiceTests {
 
     }
 
+    @Test
+    void findPageOfProducts_withProjectionReadPath_shouldSkipEntityLoading() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<ProductResponse> projected = new PageImpl<>(List.of(ProductResponse.builder().id(1L).build()));
+
+        doReturn(ProductReadProperties.Mode.PROJECTION).when(readProperties).page();
+        when(repository.findResponsePage(pageable)).thenReturn(projected);
+
+        assertThat(service.findPageOfProducts(pageable)).isSameAs(projected);
+        verify(repository, never()).findAll(pageable);
+    }
+
+    @Test
+    void findPageOfProductsAfter_withProjectionReadPath_shouldSkipEntityLoading() {
+        doReturn(ProductReadProperties.Mode.PROJECTION).when(readProperties).keyset();
+        when(repository.findResponsesByIdGreaterThan(0L, Limit.of(2))).thenReturn(List.of(
+                ProductResponse.builder().id(1L).build(),
+                ProductResponse.builder().id(2L).build()
+        ));
+
+        ProductCursorPage page = service.findPageOfProductsAfter("", 1);
+
+        assertThat(page.content()).extracting(ProductResponse::id).containsExactly(1L);
+        assertThat(page.next()).isEqualTo(new ProductCursor(1L).encode());
+        verify(repository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    void findPageOfProducts_withFilter_shouldQueryBySpecification() {
+        Pageable pageable = PageRequest.of(0, 10);
+        ProductFilter filter = ProductFilter.builder()
+                .category(Category.TV)
+                .inStock(true)
+                .build();
+
+        when(repository.findAll(ArgumentMatchers.<Specification<Product>>any(), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(Product.builder()
+                        .id(1L)
+                        .name("tv")
+                        .price(BigDecimal.TEN)
+                        .category(Category.TV)
+                        .amount(1)
+                        .build())));
+
+        Page<ProductResponse> result = service.findPageOfProducts(filter, pageable);
+
+        assertThat(result.getContent()).extracting(ProductResponse::id).containsExactly(1L);
+        verify(repository, never()).findAll(pageable);
+    }
+
+    @Test
+    void findPageOfProducts_withEmptyFilter_shouldSkipSpecification() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(repository.findAll(pageable)).thenReturn(Page.empty(pageable));
+
+        service.findPageOfProducts(ProductFilter.NONE, pageable);
+
+        verify(repository, never()).findAll(ArgumentMatchers.<Specification<Product>>any(), eq(pageable));
+    }
+
     @Test
     void findPageOfProducts_withEmptyData_shouldReturnEmptyPage() {
         Pageable pageable = PageRequest.of(0, 10);
@@ -166,4 +534,390 @@ public class DefaultProductServiceTests {
         assertThat(result).hasSize(0);
         verify(repository, times(1)).findAll(pageable);
     }
+
+    @Test
+    void findProductPage_withoutCount_shouldSkipCountQuery() {
+        Pageable pageable = PageRequest.of(0, 1);
+        doReturn(ProductCountProperties.Mode.NONE).when(countProperties).mode();
+        when(repository.findSliceBy(pageable)).thenReturn(new SliceImpl<>(List.of(product(1L)), pageable, true));
+
+        ProductPage page = service.findProductPage(ProductFilter.NONE, pageable);
+
+        assertThat(page.content()).extracting(ProductResponse::id).containsExactly(1L);
+        assertThat(page.page().hasNext()).isTrue();
+        assertThat(page.page().totalElements()).isNull();
+        verify(repository, never()).count();
+        verifyNoInteractions(productCounts);
+    }
+
+    @Test
+    void findProductPage_withEstimatedCount_shouldMarkTotalApproximate() {
+        Pageable pageable = PageRequest.of(0, 1);
+        doReturn(ProductCountProperties.Mode.ESTIMATED).when(countProperties).mode();
+        when(repository.findSliceBy(pageable)).thenReturn(new SliceImpl<>(List.of(product(1L)), pageable, true));
+        when(productCounts.estimated(ProductFilter.NONE)).thenReturn(42L);
+
+        ProductPage page = service.findProductPage(ProductFilter.NONE, pageable);
+
+        assertThat(page.page().totalElements()).isEqualTo(42L);
+        assertThat(page.page().totalPages()).isEqualTo(42L);
+        assertThat(page.page().approximate()).isTrue();
+    }
+
+    @Test
+    void findProductPage_onLastPage_shouldDeriveExactTotalWithoutCounting() {
+        Pageable pageable = PageRequest.of(2, 10);
+        doReturn(ProductCountProperties.Mode.CACHED).when(countProperties).mode();
+        when(repository.findSliceBy(pageable)).thenReturn(
+                new SliceImpl<>(List.of(product(21L), product(22L), product(23L)), pageable, false));
+
+        ProductPage page = service.findProductPage(ProductFilter.NONE, pageable);
+
+        assertThat(page.page().totalElements()).isEqualTo(23L);
+        assertThat(page.page().totalPages()).isEqualTo(3L);
+        assertThat(page.page().approximate()).isFalse();
+        verifyNoInteractions(productCounts);
+    }
+
+    @Test
+    void findPageOfProductsAfter_whenMoreRowsExist_shouldReturnNextCursor() {
+        List<Product> products = List.of(
+                Product.builder().id(11L).name("test").price(BigDecimal.TEN).amount(5).build(),
+                Product.builder().id(12L).name("test2").price(BigDecimal.TWO).amount(3).build(),
+                Product.builder().id(13L).name("test3").price(BigDecimal.ONE).amount(1).build()
+        );
+
+        when(repository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(3))).thenReturn(products);
+
+        ProductCursorPage result = service.findPageOfProductsAfter(new ProductCursor(10L).encode(), 2);
+
+        assertThat(result.content()).extracting(ProductResponse::id)
+                .containsExactly(11L, 12L);
+        assertThat(result.size()).isEqualTo(2);
+        assertThat(ProductCursor.decode(result.next()).lastId()).isEqualTo(12L);
+    }
+
+    @Test
+    void findPageOfProductsAfter_withEmptyCursorOnLastPage_shouldReturnNoNextCursor() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(11))).thenReturn(List.of(
+                Product.builder().id(1L).name("test").price(BigDecimal.TEN).amount(5).build()
+        ));
+
+        ProductCursorPage result = service.findPageOfProductsAfter("", 10);
+
+        assertThat(result.content()).extracting(ProductResponse::id)
+                .containsExactly(1L);
+        assertThat(result.next()).isNull();
+    }
+
+    @Test
+    void findPageOfProductsAfter_withMalformedCursor_shouldThrowException() {
+        assertThatThrownBy(() -> service.findPageOfProductsAfter("not-a-cursor", 10))
+                .isInstanceOf(InvalidCursorException.class);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void searchProducts_whenMoreHitsExist_shouldReturnRankCursor() {
+        ProductSearchCursor after = new ProductSearchCursor(0.9f, 3L);
+        when(repository.search("phone", Category.SMARTPHONES, after, 3)).thenReturn(List.of(
+                new SearchHit(ProductResponse.builder().id(7L).build(), 0.8f),
+                new SearchHit(ProductResponse.builder().id(2L).build(), 0.5f),
+                new SearchHit(ProductResponse.builder().id(4L).build(), 0.5f)
+        ));
+
+        ProductCursorPage page = service.searchProducts("phone", Category.SMARTPHONES, after.encode(), 2);
+
+        assertThat(page.content()).extracting(ProductResponse::id).containsExactly(7L, 2L);
+        assertThat(ProductSearchCursor.decode(page.next())).isEqualTo(new ProductSearchCursor(0.5f, 2L));
+    }
+
+    @Test
+    void searchProducts_withMalformedCursor_shouldThrowException() {
+        String idCursor = new ProductCursor(5L).encode();
+
+        assertThatThrownBy(() -> service.searchProducts("phone", null, idCursor, 10))
+                .isInstanceOf(InvalidCursorException.class);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void createProducts_withMixedRequests_shouldReturnPerItemResults() {
+        ProductRequest valid = ProductRequest.builder()
+                .name("test")
+                .price(BigDecimal.TEN)
+                .category(Category.SMARTPHONES)
+                .amount(5)
+                .build();
+        ProductRequest invalid = ProductRequest.builder()
+                .name("")
+                .price(BigDecimal.TEN)
+                .amount(5)
+                .build();
+        ProductRequest duplicate = ProductRequest.builder()
+                .name("test")
+                .price(BigDecimal.ONE)
+                .amount(1)
+                .build();
+        ProductRequest existing = ProductRequest.builder()
+                .name("existing")
+                .price(BigDecimal.TWO)
+                .amount(2)
+                .build();
+        ProductRequest another = ProductRequest.builder()
+                .name("test2")
+                .price(BigDecimal.TWO)
+                .amount(3)
+                .build();
+
+        AtomicLong ids = new AtomicLong();
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(repository.findExistingNames(any())).thenReturn(Set.of("existing"));
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            List<Product> products = new ArrayList<>();
+            invocation.<Iterable<Product>>getArgument(0).forEach(products::add);
+            products.forEach(product -> product.setId(ids.incrementAndGet()));
+            return products;
+        });
+
+        BulkProductResponse response = service.createProducts(
+                List.of(valid, invalid, duplicate, existing, another).iterator());
+
+        assertThat(response.created()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(3);
+        assertThat(response.results()).extracting(BulkProductResult::index)
+                .containsExactly(0, 1, 2, 3, 4);
+        assertThat(response.results()).extracting(BulkProductResult::status)
+                .containsExactly(
+                        BulkProductResult.Status.CREATED,
+                        BulkProductResult.Status.INVALID,
+                        BulkProductResult.Status.CONFLICT,
+                        BulkProductResult.Status.CONFLICT,
+                        BulkProductResult.Status.CREATED
+                );
+        assertThat(response.results().get(1).errors()).containsKey("name");
+        verify(repository, times(2)).saveAll(any());
+        verify(repository, times(2)).flush();
+        verify(outboxWriter, times(2)).append(eq(ProductEventType.CREATED), any(), any());
+    }
+
+    @Test
+    void createProducts_whenRowByRowInsertFails_shouldReportOnlyNameViolationsAsConflicts() {
+        ProductRequest taken = ProductRequest.builder()
+                .name("taken")
+                .price(BigDecimal.TEN)
+                .amount(5)
+                .build();
+        ProductRequest broken = ProductRequest.builder()
+                .name("broken")
+                .price(BigDecimal.ONE)
+                .amount(1)
+                .build();
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(repository.findExistingNames(any())).thenReturn(Set.of());
+        when(repository.saveAll(any())).thenThrow(integrityViolation("23505", "product_name_key"));
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> {
+            throw invocation.<Product>getArgument(0).getName().equals("taken")
+                    ? integrityViolation("23505", "product_name_key")
+                    : integrityViolation("23514", "product_price_check");
+        });
+
+        BulkProductResponse response = service.createProducts(List.of(taken, broken).iterator());
+
+        assertThat(response.created()).isZero();
+        assertThat(response.results()).extracting(BulkProductResult::status)
+                .containsExactly(BulkProductResult.Status.CONFLICT, BulkProductResult.Status.INVALID);
+        assertThat(response.results().get(1).errors()).containsKey("item");
+        verifyNoInteractions(outboxWriter);
+    }
+
+    @Test
+    void createProducts_whenInputBreaksMidStream_shouldReportItemsAlreadyWritten() {
+        ProductRequest first = ProductRequest.builder()
+                .name("test")
+                .price(BigDecimal.TEN)
+                .amount(5)
+                .build();
+        ProductRequest second = ProductRequest.builder()
+                .name("test2")
+                .price(BigDecimal.TWO)
+                .amount(3)
+                .build();
+        ProductRequest third = ProductRequest.builder()
+                .name("test3")
+                .price(BigDecimal.ONE)
+                .amount(1)
+                .build();
+        Iterator<ProductRequest> requests = new Iterator<>() {
+            private final Iterator<ProductRequest> readable = List.of(first, second, third).iterator();
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ProductRequest next() {
+                if (!readable.hasNext()) {
+                    throw new StreamReadException("Unexpected end-of-input");
+                }
+                return readable.next();
+            }
+        };
+
+        AtomicLong ids = new AtomicLong();
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(repository.findExistingNames(any())).thenReturn(Set.of());
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            List<Product> products = new ArrayList<>();
+            invocation.<Iterable<Product>>getArgument(0).forEach(products::add);
+            products.forEach(product -> product.setId(ids.incrementAndGet()));
+            return products;
+        });
+
+        BulkProductResponse response = service.createProducts(requests);
+
+        assertThat(response.created()).isEqualTo(3);
+        assertThat(response.failed()).isEqualTo(1);
+        assertThat(response.results()).extracting(BulkProductResult::status)
+                .containsExactly(
+                        BulkProductResult.Status.CREATED,
+                        BulkProductResult.Status.CREATED,
+                        BulkProductResult.Status.CREATED,
+                        BulkProductResult.Status.INVALID
+                );
+        assertThat(response.results().get(3).index()).isEqualTo(3);
+        verify(repository, times(2)).saveAll(any());
+    }
+
+    @Test
+    void createProducts_whenPriceExceedsColumnPrecision_shouldReportInvalid() {
+        ProductRequest tooPrecise = ProductRequest.builder()
+                .name("test")
+                .price(new BigDecimal("10.005"))
+                .amount(5)
+                .build();
+
+        BulkProductResponse response = service.createProducts(List.of(tooPrecise).iterator());
+
+        assertThat(response.results()).extracting(BulkProductResult::status)
+                .containsExactly(BulkProductResult.Status.INVALID);
+        assertThat(response.results().getFirst().errors()).containsKey("price");
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void exportProducts_shouldStreamAndDetachEveryProduct() {
+        Product first = Product.builder().id(1L).name("test").price(BigDecimal.TEN).amount(5).build();
+        Product second = Product.builder().id(2L).name("test2").price(BigDecimal.TWO).amount(3).build();
+
+        when(repository.streamAllOrderedById()).thenReturn(Stream.of(first, second));
+
+        List<ProductResponse> exported = new ArrayList<>();
+        service.exportProducts(exported::add);
+
+        assertThat(exported).extracting(ProductResponse::id)
+                .containsExactly(1L, 2L);
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    void reserveStock_whenStockAvailable_shouldRecordStockChange() {
+        runTransactionsInline();
+        AppliedUpdate applied = stockUpdate(5, 2);
+        when(repository.reserveStock(1L, 3)).thenReturn(Optional.of(applied));
+
+        StockResponse response = service.reserveStock(1L, 3);
+
+        assertThat(response.productId()).isEqualTo(1L);
+        assertThat(response.quantity()).isEqualTo(3);
+        verify(outboxWriter).append(ProductEventType.STOCK_CHANGED, 1L, new StockChange(1L, -3));
+        verify(eventPublisher).publishEvent(ProductChangedEvent.stockChanged(applied.previous(), applied.product()));
+    }
+
+    @Test
+    void reserveStock_whenStockInsufficient_shouldThrowException() {
+        runTransactionsInline();
+        when(repository.reserveStock(1L, 3)).thenReturn(Optional.empty());
+        when(repository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> service.reserveStock(1L, 3))
+                .isInstanceOf(InsufficientStockException.class);
+        verifyNoInteractions(outboxWriter, eventPublisher);
+    }
+
+    @Test
+    void reserveStock_whenProductNotFound_shouldThrowException() {
+        runTransactionsInline();
+        when(repository.reserveStock(1L, 3)).thenReturn(Optional.empty());
+        when(repository.existsById(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.reserveStock(1L, 3))
+                .isInstanceOf(ProductNotFoundException.class);
+    }
+
+    @Test
+    void reserveStock_whenCoalescingEnabled_shouldDelegateToCoalescer() {
+        when(stockCoalescer.isEnabledFor(1L)).thenReturn(true);
+
+        StockResponse response = service.reserveStock(1L, 3);
+
+        assertThat(response.quantity()).isEqualTo(3);
+        verify(stockCoalescer).reserve(1L, 3);
+        verifyNoInteractions(transactionTemplate);
+        verify(repository, never()).reserveStock(any(), anyInt());
+    }
+
+    @Test
+    void releaseStock_shouldRecordStockChange() {
+        when(repository.releaseStock(1L, 3)).thenReturn(Optional.of(stockUpdate(1, 4)));
+
+        service.releaseStock(1L, 3);
+
+        verify(outboxWriter).append(ProductEventType.STOCK_CHANGED, 1L, new StockChange(1L, 3));
+    }
+
+    @Test
+    void releaseStock_whenStockWouldOverflow_shouldThrowException() {
+        when(repository.releaseStock(1L, Integer.MAX_VALUE)).thenReturn(Optional.empty());
+        when(repository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> service.releaseStock(1L, Integer.MAX_VALUE))
+                .isInstanceOf(StockLimitExceededException.class);
+        verifyNoInteractions(outboxWriter, eventPublisher);
+    }
+
+    private Product product(Long id) {
+        return Product.builder()
+                .id(id)
+                .name("product-" + id)
+                .price(BigDecimal.TEN)
+                .category(Category.TV)
+                .amount(1)
+                .build();
+    }
+
+    private AppliedUpdate stockUpdate(int amountBefore, int amountAfter) {
+        ProductResponse previous = ProductResponse.builder().id(1L).amount(amountBefore).version(0L).build();
+        ProductResponse product = ProductResponse.builder().id(1L).amount(amountAfter).version(1L).build();
+        return new AppliedUpdate(previous, product);
+    }
+
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private DataIntegrityViolationException integrityViolation(String sqlState, String constraint) {
+        SQLException cause = new SQLException("violates constraint " + constraint, sqlState);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", cause, constraint));
+    }
 }
@@ -0,0 +1,175 @@
+package org.example.productservice;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.productservice.config.ConcurrencyLimitProperties;
+import org.example.productservice.web.ConcurrencyLimitFilter;
+import org.example.productservice.web.GradientConcurrencyLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class GradientConcurrencyLimiterTests {
+
+    private static final ConcurrencyLimitProperties.Limit SETTINGS =
+            new ConcurrencyLimitProperties.Limit(10, 1, 100, 0.2, 600, 0.9);
+
+    private final GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(SETTINGS);
+
+    @Test
+    void tryAcquire_whenLimitReached_shouldRejectFast() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire()).isFalse();
+        limiter.onIgnored();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void onSuccess_withSteadyLatencyUnderLoad_shouldGrowLimit() {
+        for (int i = 0; i < 200; i++) {
+            saturateAndComplete(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    void onSuccess_whenLatencyRises_shouldShrinkLimit() {
+        for (int i = 0; i < 200; i++) {
+            saturateAndComplete(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        int grown = limiter.getLimit();
+
+        for (int i = 0; i < 50; i++) {
+            saturateAndComplete(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(grown);
+    }
+
+    @Test
+    void onSuccess_withoutDemand_shouldKeepLimit() {
+        for (int i = 0; i < 200; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void onDropped_shouldBackOff() {
+        limiter.tryAcquire();
+        limiter.onDropped();
+
+        assertThat(limiter.getLimit()).isEqualTo(9);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void filter_shouldKeepReadsAvailableWhenWritesAreSaturated() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new ConcurrencyLimitProperties(true,
+                SETTINGS, new ConcurrencyLimitProperties.Limit(1, 1, 1, 0.2, 600, 0.9)),
+                JsonMapper.builder().build(), meterRegistry);
+
+        MockHttpServletResponse rejectedWrite = new MockHttpServletResponse();
+        MockFilterChain writeChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response)
+                    throws ServletException, IOException {
+                filter.doFilter(new MockHttpServletRequest("POST", "/api/products/bulk"), rejectedWrite,
+                        new MockFilterChain());
+            }
+        });
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/products/bulk"), new MockHttpServletResponse(),
+                writeChain);
+
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products/1"), read, new MockFilterChain());
+
+        assertThat(rejectedWrite.getStatus()).isEqualTo(429);
+        assertThat(read.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("product.concurrency.rejected").tag("type", "write").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("product.concurrency.limit").tag("type", "read").gauge().value())
+                .isEqualTo(10);
+    }
+
+    @Test
+    void filter_whenRequestEndsInClientErrorOrDisconnect_shouldNotBackOff() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new ConcurrencyLimitProperties(true,
+                SETTINGS, SETTINGS), JsonMapper.builder().build(), meterRegistry);
+        MockFilterChain notFoundChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                resp.setStatus(404);
+            }
+        });
+        MockFilterChain abortedChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        });
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products/1"), new MockHttpServletResponse(),
+                notFoundChain);
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/api/products/1"),
+                new MockHttpServletResponse(), abortedChain)).isInstanceOf(IOException.class);
+
+        assertThat(meterRegistry.get("product.concurrency.limit").tag("type", "read").gauge().value())
+                .isEqualTo(10);
+        assertThat(meterRegistry.get("product.concurrency.in-flight").tag("type", "read").gauge().value())
+                .isZero();
+    }
+
+    @Test
+    void filter_whenResponseIsStreamed_shouldHoldSlotUntilAsyncCompletion() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new ConcurrencyLimitProperties(true,
+                SETTINGS, SETTINGS), JsonMapper.builder().build(), meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/export");
+        request.setAsyncSupported(true);
+        MockFilterChain streamingChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                req.startAsync();
+            }
+        });
+
+        filter.doFilter(request, new MockHttpServletResponse(), streamingChain);
+
+        assertThat(meterRegistry.get("product.concurrency.in-flight").tag("type", "read").gauge().value())
+                .isEqualTo(1);
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertThat(meterRegistry.get("product.concurrency.in-flight").tag("type", "read").gauge().value())
+                .isZero();
+    }
+
+    private void saturateAndComplete(long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.onSuccess(rttNanos);
+        }
+    }
+}
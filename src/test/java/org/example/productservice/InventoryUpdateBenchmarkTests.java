@@ -0,0 +1,82 @@
+package org.example.productservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.config.InventoryProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// Messages per second from the first send until every product shows its last update
+@Slf4j
+@SpringBootTest(properties = "product-service.outbox.relay-enabled=false")
+@Import(TestcontainersConfiguration.class)
+@Tag("benchmark")
+public class InventoryUpdateBenchmarkTests {
+
+    private static final int PRODUCTS = Integer.getInteger("load.inventory-products", 100);
+    private static final int MESSAGES = Integer.getInteger("load.inventory-messages", 50_000);
+    private static final int INITIAL_AMOUNT = 1_000_000;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryProperties properties;
+
+    @AfterEach
+    void cleanUp() {
+        BenchmarkCatalog.truncate(jdbcTemplate);
+    }
+
+    @Test
+    void measureInventoryThroughput() throws Exception {
+        BenchmarkCatalog.of(PRODUCTS)
+                .name("'inventory-' || g")
+                .description("NULL")
+                .price("10")
+                .amount(Integer.toString(INITIAL_AMOUNT))
+                .seed(jdbcTemplate);
+
+        long start = System.nanoTime();
+        List<CompletableFuture<?>> sends = new ArrayList<>(MESSAGES + PRODUCTS);
+        for (int i = 0; i < MESSAGES; i++) {
+            long id = 1 + i % PRODUCTS;
+            sends.add(send(id, "{\"productId\":" + id + ",\"stockDelta\":-1}"));
+        }
+        for (long id = 1; id <= PRODUCTS; id++) {
+            sends.add(send(id, "{\"productId\":" + id + ",\"price\":42.50}"));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+
+        int expectedAmount = INITIAL_AMOUNT - MESSAGES / PRODUCTS;
+        await().atMost(Duration.ofMinutes(2)).pollInterval(Duration.ofMillis(50)).untilAsserted(() ->
+                assertThat(jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM product WHERE amount = ? AND price = 42.50",
+                        Integer.class, expectedAmount)).isEqualTo(PRODUCTS));
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        log.info(String.format("%-10s %12s %12s", "messages", "seconds", "msg/s"));
+        log.info(String.format("%-10d %12.2f %12.0f", MESSAGES + PRODUCTS, seconds, (MESSAGES + PRODUCTS) / seconds));
+    }
+
+    private CompletableFuture<?> send(long productId, String payload) {
+        return kafkaTemplate.send(properties.topic(), Long.toString(productId), payload);
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.productservice;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.productservice.config.InventoryProperties;
+import org.example.productservice.inventory.InventoryUpdateListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = "product-service.outbox.relay-enabled=false")
+@Import(TestcontainersConfiguration.class)
+public class InventoryUpdateListenerIntegrationTests {
+
+    private static final int PRODUCTS = 10;
+    private static final int MESSAGES = 200;
+    private static final int INITIAL_AMOUNT = 1_000;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryUpdateListener listener;
+
+    @Autowired
+    private InventoryProperties properties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE product, outbox_event, consumer_offset");
+    }
+
+    @Test
+    void shouldApplyEveryUpdateOnce() throws Exception {
+        seed(1, PRODUCTS, INITIAL_AMOUNT);
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(MESSAGES + PRODUCTS);
+        for (int i = 0; i < MESSAGES; i++) {
+            long id = 1 + i % PRODUCTS;
+            sends.add(send(id, "{\"productId\":" + id + ",\"stockDelta\":-1}"));
+        }
+        // keyed by product id, so the price update lands after that product's deltas on the same partition
+        for (long id = 1; id <= PRODUCTS; id++) {
+            sends.add(send(id, "{\"productId\":" + id + ",\"price\":42.50}"));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+                assertThat(jdbcTemplate.queryForList(
+                        "SELECT amount || '@' || price FROM product WHERE id BETWEEN 1 AND ? ORDER BY id",
+                        String.class, PRODUCTS))
+                        .hasSize(PRODUCTS)
+                        .containsOnly((INITIAL_AMOUNT - MESSAGES / PRODUCTS) + "@42.50"));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT sum(next_offset) FROM consumer_offset WHERE consumer_group = ? AND topic = ?",
+                Long.class, properties.groupId(), properties.topic())).isEqualTo(MESSAGES + PRODUCTS);
+    }
+
+    @Test
+    void shouldClampStockToTheIntRange() {
+        seed(2001, 2002, Integer.MAX_VALUE - 10);
+
+        listener.onUpdates(List.of(
+                stockDelta(0, 2001, Integer.MAX_VALUE),
+                stockDelta(1, 2001, Integer.MAX_VALUE),
+                stockDelta(2, 2002, -Integer.MAX_VALUE),
+                stockDelta(3, 2002, -Integer.MAX_VALUE)
+        ));
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT amount FROM product WHERE id BETWEEN 2001 AND 2002 ORDER BY id", Integer.class))
+                .containsExactly(Integer.MAX_VALUE, 0);
+    }
+
+    @Test
+    void shouldIgnoreRedeliveredRecords() {
+        seed(1001, 1010, 100);
+        // a partition the topic does not have, so the real consumer's offsets are left alone
+        int partition = 99;
+        List<ConsumerRecord<String, String>> batch = records(partition, 0, 10);
+
+        listener.onUpdates(batch);
+        listener.onUpdates(batch);
+        // overlapping redelivery: offsets 5..9 were applied, 10..14 are new
+        listener.onUpdates(records(partition, 5, 15));
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT amount FROM product WHERE id BETWEEN 1001 AND 1010 ORDER BY id", Integer.class))
+                .containsExactly(90, 90, 90, 90, 90, 95, 95, 95, 95, 95);
+    }
+
+    @Test
+    void shouldNotWaitOnPartitionsOutsideTheBatch() throws Exception {
+        seed(3001, 3001, 100);
+        jdbcTemplate.update("INSERT INTO consumer_offset (consumer_group, topic, partition_id, next_offset) VALUES (?, ?, 98, 0)",
+                properties.groupId(), properties.topic());
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // another consumer in the middle of a batch on partition 98
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("""
+                    SELECT next_offset FROM consumer_offset
+                    WHERE consumer_group = ? AND topic = ? AND partition_id = 98
+                    FOR UPDATE
+                    """, properties.groupId(), properties.topic());
+            locked.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> listener.onUpdates(List.of(stockDelta(0, 3001, -1))));
+        } finally {
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT amount FROM product WHERE id = 3001", Integer.class))
+                .isEqualTo(99);
+    }
+
+    private void seed(long firstId, long lastId, int amount) {
+        jdbcTemplate.update("""
+                INSERT INTO product (id, name, description, price, category, amount)
+                SELECT g, 'inventory-' || g, NULL, 10, 'TV', ?
+                FROM generate_series(?, ?) AS g
+                """, amount, firstId, lastId);
+    }
+
+    private CompletableFuture<?> send(long productId, String payload) {
+        return kafkaTemplate.send(properties.topic(), Long.toString(productId), payload);
+    }
+
+    private ConsumerRecord<String, String> stockDelta(long offset, long productId, long delta) {
+        return new ConsumerRecord<>(properties.topic(), 99, offset, Long.toString(productId),
+                "{\"productId\":" + productId + ",\"stockDelta\":" + delta + "}");
+    }
+
+    // offsets [from, to), each one takes 5 from products 1001..1010 in turn
+    private List<ConsumerRecord<String, String>> records(int partition, long from, long to) {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (long offset = from; offset < to; offset++) {
+            long id = 1001 + offset % 10;
+            records.add(new ConsumerRecord<>(properties.topic(), partition, offset, Long.toString(id),
+                    "{\"productId\":" + id + ",\"stockDelta\":-5}"));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,178 @@
+package org.example.productservice;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.productservice.config.InventoryProperties;
+import org.example.productservice.dto.InventoryUpdate;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.inventory.InventoryUpdateListener;
+import org.example.productservice.model.enums.ProductEventType;
+import org.example.productservice.outbox.OutboxWriter;
+import org.example.productservice.repository.ConsumerOffsetRepository;
+import org.example.productservice.repository.ProductBatchRepository.AppliedUpdate;
+import org.example.productservice.repository.ProductRepository;
+import org.example.productservice.service.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InventoryUpdateListenerTests {
+
+    private static final String TOPIC = "inventory";
+    private static final String GROUP = "inventory-group";
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ConsumerOffsetRepository offsetRepository;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private InventoryUpdateListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new InventoryUpdateListener(productRepository, offsetRepository, outboxWriter, eventPublisher,
+                transactionTemplate, JsonMapper.builder().build(), new InventoryProperties(true, TOPIC, GROUP, 1, TOPIC + "-dlt", Duration.ofMinutes(1)),
+                new SimpleMeterRegistry());
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void onUpdates_shouldMergeUpdatesPerProductIntoOneStatement() {
+        when(offsetRepository.lockNextOffsets(eq(GROUP), eq(TOPIC), anyCollection())).thenReturn(Map.of());
+        ProductResponse previous = ProductResponse.builder().id(1L).amount(10).price(BigDecimal.TEN).build();
+        ProductResponse updated = ProductResponse.builder().id(1L).amount(7).price(new BigDecimal("12.50")).build();
+        List<Collection<InventoryUpdate>> applied = new ArrayList<>();
+        when(productRepository.applyInventoryUpdates(anyCollection())).thenAnswer(invocation -> {
+            applied.add(List.copyOf(invocation.<Collection<InventoryUpdate>>getArgument(0)));
+            return List.of(new AppliedUpdate(previous, updated));
+        });
+
+        listener.onUpdates(List.of(
+                record(0, 10, "{\"productId\":1,\"stockDelta\":-2}"),
+                record(0, 11, "{\"productId\":2,\"stockDelta\":5}"),
+                record(0, 12, "{\"productId\":1,\"price\":12.50}"),
+                record(0, 13, "{\"productId\":1,\"stockDelta\":-1}"),
+                record(1, 4, "not json")
+        ));
+
+        assertThat(applied).hasSize(1);
+        assertThat(applied.getFirst()).containsExactly(
+                new InventoryUpdate(1L, -3L, new BigDecimal("12.50")),
+                new InventoryUpdate(2L, 5L, null));
+        verify(offsetRepository).lockNextOffsets(GROUP, TOPIC, List.of(0, 0, 0, 0, 1));
+        verify(offsetRepository).saveNextOffsets(GROUP, TOPIC, Map.of(0, 14L, 1, 5L));
+        verify(outboxWriter).append(ProductEventType.UPDATED, 1L, updated);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.updated(previous, updated));
+    }
+
+    @Test
+    void onUpdates_whenBatchIsRedelivered_shouldSkipAlreadyAppliedOffsets() {
+        when(offsetRepository.lockNextOffsets(eq(GROUP), eq(TOPIC), anyCollection())).thenReturn(Map.of(0, 12L));
+        ArgumentCaptor<Collection<InventoryUpdate>> applied = ArgumentCaptor.captor();
+        when(productRepository.applyInventoryUpdates(applied.capture())).thenReturn(List.of());
+
+        listener.onUpdates(List.of(
+                record(0, 10, "{\"productId\":1,\"stockDelta\":-2}"),
+                record(0, 11, "{\"productId\":1,\"stockDelta\":-2}"),
+                record(0, 12, "{\"productId\":1,\"stockDelta\":-2}")
+        ));
+
+        assertThat(applied.getValue()).containsExactly(new InventoryUpdate(1L, -2L, null));
+        verify(offsetRepository).saveNextOffsets(GROUP, TOPIC, Map.of(0, 13L));
+    }
+
+    @Test
+    void onUpdates_shouldSkipOutOfRangeDeltasAndMergeLargeOnesWithoutOverflow() {
+        when(offsetRepository.lockNextOffsets(eq(GROUP), eq(TOPIC), anyCollection())).thenReturn(Map.of());
+        ArgumentCaptor<Collection<InventoryUpdate>> applied = ArgumentCaptor.captor();
+        when(productRepository.applyInventoryUpdates(applied.capture())).thenReturn(List.of());
+
+        listener.onUpdates(List.of(
+                record(0, 10, "{\"productId\":1,\"stockDelta\":2147483647}"),
+                record(0, 11, "{\"productId\":1,\"stockDelta\":2147483647}"),
+                record(0, 12, "{\"productId\":1,\"stockDelta\":2147483648}"),
+                record(0, 13, "{\"productId\":1,\"stockDelta\":-2147483648}")
+        ));
+
+        assertThat(applied.getValue()).containsExactly(new InventoryUpdate(1L, 2L * Integer.MAX_VALUE, null));
+        verify(offsetRepository).saveNextOffsets(GROUP, TOPIC, Map.of(0, 14L));
+    }
+
+    @Test
+    void onUpdates_whenWholeBatchWasApplied_shouldNotTouchProducts() {
+        when(offsetRepository.lockNextOffsets(eq(GROUP), eq(TOPIC), anyCollection())).thenReturn(Map.of(0, 20L));
+
+        listener.onUpdates(List.of(record(0, 19, "{\"productId\":1,\"stockDelta\":-2}")));
+
+        verify(productRepository, never()).applyInventoryUpdates(anyCollection());
+        verify(offsetRepository, never()).saveNextOffsets(any(), any(), any());
+    }
+
+    @Test
+    void onUpdates_whenBatchFails_shouldReportOnlyTheFailingRecord() {
+        when(offsetRepository.lockNextOffsets(eq(GROUP), eq(TOPIC), anyCollection())).thenReturn(Map.of());
+        DataIntegrityViolationException rejected = new DataIntegrityViolationException("price out of range");
+        when(productRepository.applyInventoryUpdates(anyCollection())).thenAnswer(invocation -> {
+            Collection<InventoryUpdate> updates = invocation.getArgument(0);
+            if (updates.stream().anyMatch(update -> update.productId() == 2L)) {
+                throw rejected;
+            }
+            return List.of();
+        });
+
+        assertThatThrownBy(() -> listener.onUpdates(List.of(
+                record(0, 10, "{\"productId\":1,\"stockDelta\":-2}"),
+                record(0, 11, "{\"productId\":2,\"price\":12.50}"),
+                record(0, 12, "{\"productId\":3,\"stockDelta\":5}")
+        )))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> {
+                    assertThat(e.getIndex()).isEqualTo(1);
+                    assertThat(e.getCause()).isSameAs(rejected);
+                });
+        // the record before the failing one is committed on its own, the one after is left for redelivery
+        verify(offsetRepository).saveNextOffsets(GROUP, TOPIC, Map.of(0, 11L));
+        verify(offsetRepository, never()).saveNextOffsets(GROUP, TOPIC, Map.of(0, 13L));
+    }
+
+    private static ConsumerRecord<String, String> record(int partition, long offset, String value) {
+        return new ConsumerRecord<>(TOPIC, partition, offset, null, value);
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.productservice;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.example.productservice.dto.ProductRequest;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.model.enums.Category;
+import org.example.productservice.model.enums.ProductEventType;
+import org.example.productservice.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.kafka.KafkaContainer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = "product-service.outbox.poll-interval=100ms")
+@Import(TestcontainersConfiguration.class)
+public class OutboxRelayIntegrationTests {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private KafkaContainer kafkaContainer;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE product, outbox_event");
+    }
+
+    @Test
+    void shouldPublishCreatedProductAndMarkEventSent() {
+        ProductResponse product = service.createProduct(ProductRequest.builder()
+                .name("test")
+                .description("test-desc")
+                .price(BigDecimal.TEN)
+                .category(Category.SMARTPHONES)
+                .amount(5)
+                .build());
+
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaContainer.getBootstrapServers(),
+                ConsumerConfig.GROUP_ID_CONFIG, UUID.randomUUID().toString(),
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest"
+        ), new StringDeserializer(), new StringDeserializer())) {
+            consumer.subscribe(List.of("product-events"));
+
+            List<ConsumerRecord<String, String>> records = new ArrayList<>();
+            await().atMost(Duration.ofSeconds(30)).until(() -> {
+                consumer.poll(Duration.ofMillis(200)).forEach(records::add);
+                return records.stream().anyMatch(record -> record.key().equals(product.id().toString()));
+            });
+
+            ConsumerRecord<String, String> record = records.stream()
+                    .filter(r -> r.key().equals(product.id().toString()))
+                    .findFirst()
+                    .orElseThrow();
+            assertThat(new String(record.headers().lastHeader("event-type").value(), StandardCharsets.UTF_8))
+                    .isEqualTo(ProductEventType.CREATED.name());
+            assertThat(record.value()).contains("\"name\":\"test\"");
+        }
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM outbox_event WHERE sent_at IS NULL", Integer.class)).isZero());
+    }
+}
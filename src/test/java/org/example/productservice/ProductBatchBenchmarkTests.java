@@ -0,0 +1,118 @@
+package org.example.productservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 100 sequential GET /{id} calls, as cart rendering does today, against one GET /batch call for 100 other ids.
+// Ids are drawn at random from a large catalog so both sides mostly miss the product cache.
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "product-service.outbox.relay-enabled=false")
+@Import(TestcontainersConfiguration.class)
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ProductBatchBenchmarkTests {
+
+    private static final int CATALOG_SIZE = 1_000_000;
+    private static final int IDS_PER_RENDER = 100;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int ITERATIONS = 100;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private HttpClient client;
+
+    @BeforeAll
+    void seed() {
+        BenchmarkCatalog.of(CATALOG_SIZE).seed(jdbcTemplate);
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        client.close();
+        BenchmarkCatalog.truncate(jdbcTemplate);
+    }
+
+    @Test
+    void compareSingleCallsWithBatch() throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            singleCalls(randomIds());
+            batchCall(randomIds());
+        }
+
+        long[] single = new long[ITERATIONS];
+        long[] batch = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            single[i] = singleCalls(randomIds());
+            batch[i] = batchCall(randomIds());
+        }
+
+        log.info(String.format("%d ids per render: %d single calls p50 %.2f ms, p99 %.2f ms | one batch call p50 %.2f ms, p99 %.2f ms",
+                IDS_PER_RENDER, IDS_PER_RENDER,
+                percentile(single, 50), percentile(single, 99), percentile(batch, 50), percentile(batch, 99)));
+
+        assertThat(percentile(batch, 50)).isLessThan(percentile(single, 50));
+    }
+
+    private long singleCalls(long[] ids) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        for (long id : ids) {
+            assertThat(get("/api/products/" + id).statusCode()).isEqualTo(200);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long batchCall(long[] ids) throws IOException, InterruptedException {
+        String query = Arrays.stream(ids)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(","));
+        long start = System.nanoTime();
+        assertThat(get("/api/products/batch?ids=" + query).statusCode()).isEqualTo(200);
+        return System.nanoTime() - start;
+    }
+
+    private HttpResponse<byte[]> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static long[] randomIds() {
+        return LongStream.generate(() -> 1 + ThreadLocalRandom.current().nextInt(CATALOG_SIZE))
+                .distinct()
+                .limit(IDS_PER_RENDER)
+                .toArray();
+    }
+
+    private static double percentile(long[] nanos, int percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[index] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.productservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.dto.BulkProductResponse;
+import org.example.productservice.dto.ProductRequest;
+import org.example.productservice.model.enums.Category;
+import org.example.productservice.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@Import(TestcontainersConfiguration.class)
+@Tag("benchmark")
+public class ProductBulkCreateBenchmarkTests {
+
+    private static final int ITEMS = 10_000;
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        BenchmarkCatalog.truncate(jdbcTemplate);
+    }
+
+    @Test
+    void compareSingleAndBulkCreation() {
+        List<ProductRequest> singleRequests = requests("single");
+        long start = System.nanoTime();
+        singleRequests.forEach(service::createProduct);
+        double singleSeconds = (System.nanoTime() - start) / 1e9;
+
+        List<ProductRequest> bulkRequests = requests("bulk");
+        start = System.nanoTime();
+        BulkProductResponse response = service.createProducts(bulkRequests.iterator());
+        double bulkSeconds = (System.nanoTime() - start) / 1e9;
+
+        assertThat(response.created()).isEqualTo(ITEMS);
+        log.info(String.format("%-8s %10s %14s", "path", "items", "items/s"));
+        log.info(String.format("%-8s %10d %14.0f", "single", ITEMS, ITEMS / singleSeconds));
+        log.info(String.format("%-8s %10d %14.0f", "bulk", ITEMS, ITEMS / bulkSeconds));
+    }
+
+    private List<ProductRequest> requests(String prefix) {
+        return IntStream.range(0, ITEMS)
+                .mapToObj(i -> ProductRequest.builder()
+                        .name(prefix + "-" + i)
+                        .description("description-" + i)
+                        .price(BigDecimal.valueOf(1 + i % 1000))
+                        .category(Category.values()[i % Category.values().length])
+                        .amount(i % 100)
+                        .build())
+                .toList();
+    }
+}
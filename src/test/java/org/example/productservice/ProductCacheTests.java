@@ -0,0 +1,110 @@
+package org.example.productservice;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.productservice.config.ProductCacheProperties;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.model.enums.Category;
+import org.example.productservice.service.cache.ProductCache;
+import org.example.productservice.service.event.ProductChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProductCacheTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ProductCache cache = new ProductCache(
+            new ProductCacheProperties(100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1)), meterRegistry);
+
+    private final ProductResponse product = ProductResponse.builder()
+            .id(1L)
+            .name("test")
+            .description("test-desc")
+            .price(BigDecimal.TEN)
+            .category(Category.SMARTPHONES)
+            .amount(5)
+            .build();
+
+    @Test
+    void onProductChanged_withOutOfOrderUpdates_shouldNotCacheEitherVersion() {
+        ProductResponse older = ProductResponse.builder().id(1L).name("older").version(1L).build();
+        ProductResponse newer = ProductResponse.builder().id(1L).name("newer").version(2L).build();
+        cache.get(1L, id -> product);
+
+        cache.onProductChanged(ProductChangedEvent.updated(older, newer));
+        cache.onProductChanged(ProductChangedEvent.updated(product, older));
+
+        assertThat(cache.get(1L, id -> newer)).isEqualTo(newer);
+    }
+
+    @Test
+    void onProductChanged_withModifiedProduct_shouldInvalidateEntry() {
+        cache.get(1L, id -> product);
+
+        cache.onProductChanged(ProductChangedEvent.stockChanged(product, product));
+
+        assertThat(cache.get(1L, id -> null)).isNull();
+    }
+
+    @Test
+    void getAll_shouldLoadOnlyUncachedIdsAndRememberMissingOnes() {
+        cache.get(1L, id -> product);
+        List<List<Long>> loads = new ArrayList<>();
+
+        Map<Long, ProductResponse> first = cache.getAll(List.of(1L, 2L), ids -> {
+            loads.add(List.copyOf(ids));
+            return Map.of();
+        });
+        Map<Long, ProductResponse> second = cache.getAll(List.of(1L, 2L), ids -> {
+            loads.add(List.copyOf(ids));
+            return Map.of();
+        });
+
+        assertThat(first).containsOnlyKeys(1L);
+        assertThat(second).containsOnlyKeys(1L);
+        assertThat(loads).containsExactly(List.of(2L));
+    }
+
+    @Test
+    void get_shouldRecordHitsAndMisses() {
+        cache.get(1L, id -> product);
+        cache.get(1L, id -> product);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_whenLoaderFindsNothing_shouldRememberMissingId() {
+        cache.get(1L, id -> null);
+
+        assertThat(cache.get(1L, id -> product)).isNull();
+    }
+
+    @Test
+    void onProductChanged_shouldForgetMissingId() {
+        cache.get(1L, id -> null);
+
+        cache.onProductChanged(ProductChangedEvent.created(product));
+
+        assertThat(cache.get(1L, id -> product)).isEqualTo(product);
+    }
+
+    @Test
+    void get_whenProductChangesDuringLoad_shouldNotRememberMissingId() {
+        cache.get(1L, id -> {
+            ProductResponse other = ProductResponse.builder().id(2L).build();
+            cache.onProductChanged(ProductChangedEvent.stockChanged(other, other));
+            return null;
+        });
+
+        assertThat(cache.get(1L, id -> product)).isEqualTo(product);
+    }
+}
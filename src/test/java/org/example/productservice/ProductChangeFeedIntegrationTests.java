@@ -0,0 +1,141 @@
+package org.example.productservice;
+
+import org.example.productservice.dto.ProductChange;
+import org.example.productservice.dto.ProductRequest;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.model.enums.Category;
+import org.example.productservice.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Changes are only visible to the feed once committed, so the tests run without a surrounding transaction
+@SpringBootTest(properties = "product-service.outbox.relay-enabled=false")
+@Import(TestcontainersConfiguration.class)
+public class ProductChangeFeedIntegrationTests {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE product, outbox_event");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE product, outbox_event");
+    }
+
+    @Test
+    void shouldReturnChangesInSequenceOrderWithLatestState() {
+        ProductResponse first = service.createProduct(request("first"));
+        ProductResponse second = service.createProduct(request("second"));
+        service.updateProduct(first.id(), request("first-updated"), null);
+
+        List<ProductChange> changes = changesAfter(0);
+
+        assertThat(changes).extracting(change -> change.product().id()).containsExactly(second.id(), first.id());
+        assertThat(changes.getLast().product().name()).isEqualTo("first-updated");
+        assertThat(changes).extracting(ProductChange::changeSeq).isSorted();
+    }
+
+    @Test
+    void shouldReturnOnlyChangesAfterWatermark() {
+        ProductResponse first = service.createProduct(request("first"));
+        service.createProduct(request("second"));
+        long watermark = changesAfter(0).getLast().changeSeq();
+
+        assertThat(changesAfter(watermark)).isEmpty();
+
+        service.updateProduct(first.id(), request("first-updated"), null);
+
+        assertThat(changesAfter(watermark)).extracting(change -> change.product().name())
+                .containsExactly("first-updated");
+    }
+
+    @Test
+    void shouldStopAtLimit() {
+        for (int i = 0; i < 5; i++) {
+            service.createProduct(request("product-" + i));
+        }
+        List<ProductChange> page = new ArrayList<>();
+
+        service.exportChanges(0, 3, page::add);
+
+        assertThat(page).extracting(change -> change.product().name())
+                .containsExactly("product-0", "product-1", "product-2");
+        assertThat(changesAfter(page.getLast().changeSeq())).extracting(change -> change.product().name())
+                .containsExactly("product-3", "product-4");
+    }
+
+    @Test
+    void shouldHoldBackChangesCommittedAfterAStillRunningWriter() throws Exception {
+        ProductResponse slow = service.createProduct(request("slow"));
+        long watermark = changesAfter(0).getLast().changeSeq();
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> writer = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("UPDATE product SET name = 'slow-updated' WHERE id = ?", slow.id());
+                written.countDown();
+                try {
+                    commit.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            written.await();
+            service.createProduct(request("fast"));
+            // Longer than any wall-clock lag would have waited; the running writer alone keeps the feed back
+            Thread.sleep(Duration.ofSeconds(3));
+
+            assertThat(changesAfter(watermark)).isEmpty();
+
+            commit.countDown();
+            writer.get();
+        }
+
+        assertThat(changesAfter(watermark)).extracting(change -> change.product().name())
+                .containsExactly("slow-updated", "fast");
+    }
+
+    private List<ProductChange> changesAfter(long watermark) {
+        List<ProductChange> changes = new ArrayList<>();
+        service.exportChanges(watermark, 1000, changes::add);
+        return changes;
+    }
+
+    private static ProductRequest request(String name) {
+        return ProductRequest.builder()
+                .name(name)
+                .description(name + "-desc")
+                .price(BigDecimal.TEN)
+                .category(Category.TV)
+                .amount(5)
+                .build();
+    }
+}
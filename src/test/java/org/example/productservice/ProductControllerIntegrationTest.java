@@ -1,9 +1,18 @@
 package org.example.productservice;
 
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.example.productservice.dto.ProductCursor;
 import org.example.productservice.dto.ProductRequest;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.dto.StockRequest;
 import org.example.productservice.model.enums.Category;
 import org.example.productservice.service.impl.DefaultProductService;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
@@ -13,9 +22,13 @@ import org.springframework.transaction.annotation.Transactional;
 import tools.jackson.databind.ObjectMapper;
 
 import java.math.BigDecimal;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -34,6 +47,13 @@ public class ProductControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // JDBC-backed queries (search, batch) do not trigger a Hibernate auto-flush of pending inserts
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void shouldCreateProductAndReturnCreatedStatus() throws Exception {
         ProductRequest request = ProductRequest.builder()
@@ -62,6 +82,23 @@ public class ProductControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void shouldRecordMetricsWithRouteTemplateTags() throws Exception {
+        double notFoundBefore = meterRegistry.counter("product.exceptions", "type", "not_found").count();
+
+        mvc.perform(get("/api/products/" + 424242L))
+                .andExpect(status().isNotFound());
+
+        assertThat(meterRegistry.counter("product.exceptions", "type", "not_found").count())
+                .isEqualTo(notFoundBefore + 1);
+        assertThat(meterRegistry.get("product.http.statements")
+                .tags("method", "GET", "uri", "/api/products/{id}")
+                .summary().count()).isPositive();
+        assertThat(meterRegistry.get("product.service")
+                .tag("method", "findProductById")
+                .timer().count()).isPositive();
+    }
+
     @Test
     void shouldReturnPageOfProducts() throws Exception {
         service.createProduct(ProductRequest.builder()
@@ -87,6 +124,406 @@ public class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$.page.number").value(0));
     }
 
+    @Test
+    void shouldFilterPageOfProducts() throws Exception {
+        service.createProduct(ProductRequest.builder()
+                .name("filter-phone-cheap")
+                .price(BigDecimal.ONE)
+                .category(Category.SMARTPHONES)
+                .amount(5)
+                .build());
+        service.createProduct(ProductRequest.builder()
+                .name("filter-phone-sold-out")
+                .price(BigDecimal.TEN)
+                .category(Category.SMARTPHONES)
+                .amount(0)
+                .build());
+        service.createProduct(ProductRequest.builder()
+                .name("filter-phone-pricey")
+                .price(BigDecimal.valueOf(500))
+                .category(Category.SMARTPHONES)
+                .amount(2)
+                .build());
+        service.createProduct(ProductRequest.builder()
+                .name("filter-tv")
+                .price(BigDecimal.TEN)
+                .category(Category.TV)
+                .amount(5)
+                .build());
+
+        mvc.perform(get("/api/products/")
+                .param("category", Category.SMARTPHONES.name())
+                .param("maxPrice", "100")
+                .param("inStock", "true")
+                .param("namePrefix", "filter-"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("filter-phone-cheap"));
+    }
+
+    @Test
+    void shouldDeriveFilteredPageETagFromCanonicalFilter() throws Exception {
+        String eTag = filteredPageETag(Category.TV, "100");
+
+        assertThat(filteredPageETag(Category.TV, "100.00")).isEqualTo(eTag);
+        assertThat(filteredPageETag(Category.LAPTOPS, "100")).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void shouldSearchProductsByRelevanceWithCursor() throws Exception {
+        service.createProduct(ProductRequest.builder()
+                .name("Nimbus wireless headphones")
+                .description("Over-ear nimbus headphones with noise cancelling")
+                .price(BigDecimal.TEN)
+                .category(Category.HEADPHONES)
+                .amount(5)
+                .build());
+        service.createProduct(ProductRequest.builder()
+                .name("Travel case")
+                .description("Hard case that fits nimbus headphones")
+                .price(BigDecimal.ONE)
+                .category(Category.HEADPHONES)
+                .amount(5)
+                .build());
+        service.createProduct(ProductRequest.builder()
+                .name("Nimbus smart TV")
+                .price(BigDecimal.TEN)
+                .category(Category.TV)
+                .amount(5)
+                .build());
+        entityManager.flush();
+
+        String next = JsonPath.read(mvc.perform(get("/api/products/search")
+                .param("q", "nimbus headphones")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Nimbus wireless headphones"))
+                .andReturn().getResponse().getContentAsString(), "$.next");
+
+        mvc.perform(get("/api/products/search")
+                .param("q", "nimbus headphones")
+                .param("after", next)
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Travel case"))
+                .andExpect(jsonPath("$.next").isEmpty());
+
+        mvc.perform(get("/api/products/search")
+                .param("q", "nimbus")
+                .param("category", Category.TV.name()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Nimbus smart TV"));
+    }
+
+    @Test
+    void shouldPageThroughSearchResultsWithEqualRank() throws Exception {
+        ProductResponse blue = service.createProduct(ProductRequest.builder()
+                .name("Orbit speaker blue")
+                .price(BigDecimal.TEN)
+                .category(Category.HEADPHONES)
+                .amount(5)
+                .build());
+        ProductResponse red = service.createProduct(ProductRequest.builder()
+                .name("Orbit speaker red")
+                .price(BigDecimal.TEN)
+                .category(Category.HEADPHONES)
+                .amount(5)
+                .build());
+        entityManager.flush();
+
+        String next = JsonPath.read(mvc.perform(get("/api/products/search")
+                .param("q", "orbit")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(blue.id()))
+                .andReturn().getResponse().getContentAsString(), "$.next");
+
+        mvc.perform(get("/api/products/search")
+                .param("q", "orbit")
+                .param("after", next)
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(red.id()))
+                .andExpect(jsonPath("$.next").isEmpty());
+    }
+
+    @Test
+    void shouldRejectInvalidSearchSizeAndCategory() throws Exception {
+        mvc.perform(get("/api/products/search")
+                .param("q", "phone")
+                .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        mvc.perform(get("/api/products/search")
+                .param("q", "phone")
+                .param("category", "TOASTERS"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value for parameter 'category'"));
+    }
+
+    @Test
+    void shouldResolveBatchOfIdsInRequestOrder() throws Exception {
+        ProductResponse first = service.createProduct(ProductRequest.builder()
+                .name("batch-1")
+                .price(BigDecimal.TEN)
+                .category(Category.TV)
+                .amount(1)
+                .build());
+        ProductResponse second = service.createProduct(ProductRequest.builder()
+                .name("batch-2")
+                .price(BigDecimal.TWO)
+                .category(Category.TV)
+                .amount(1)
+                .build());
+        entityManager.flush();
+
+        mvc.perform(get("/api/products/batch")
+                .param("ids", second.id() + "," + 424242 + "," + first.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].id").value(second.id()))
+                .andExpect(jsonPath("$.products[1].id").value(first.id()))
+                .andExpect(jsonPath("$.missing[0]").value(424242));
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() throws Exception {
+        mvc.perform(get("/api/products/batch"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldRejectInvertedPriceRange() throws Exception {
+        mvc.perform(get("/api/products/")
+                .param("minPrice", "10")
+                .param("maxPrice", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnPagesOfProductsAfterCursor() throws Exception {
+        ProductResponse first = service.createProduct(ProductRequest.builder()
+                .name("test")
+                .description("test-desc")
+                .price(BigDecimal.TEN)
+                .category(Category.SMARTPHONES)
+                .amount(5)
+                .build());
+        ProductResponse second = service.createProduct(ProductRequest.builder()
+                .name("test2")
+                .description("test-desc2")
+                .price(BigDecimal.TWO)
+                .category(Category.TV)
+                .amount(3)
+                .build());
+
+        mvc.perform(get("/api/products/")
+                .param("after", "")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(first.id()))
+                .andExpect(jsonPath("$.page").doesNotExist())
+                .andExpect(jsonPath("$.next").value(new ProductCursor(first.id()).encode()));
+
+        mvc.perform(get("/api/products/")
+                .param("after", new ProductCursor(first.id()).encode())
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(second.id()))
+                .andExpect(jsonPath("$.next").isEmpty());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-1", "501", "2147483647"})
+    void shouldRejectOutOfRangeCursorPageSize(String size) throws Exception {
+        mvc.perform(get("/api/products/")
+                .param("after", "")
+                .param("size", size))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.size").exists());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() throws Exception {
+        mvc.perform(get("/api/products/")
+                .param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
 
+    @Test
+    void shouldCreateProductsInBulkFromJsonArray() throws Exception {
+        List<ProductRequest> requests = List.of(
+                ProductRequest.builder()
+                        .name("test")
+                        .price(BigDecimal.TEN)
+                        .category(Category.SMARTPHONES)
+                        .amount(5)
+                        .build(),
+                ProductRequest.builder()
+                        .name("")
+                        .price(BigDecimal.TEN)
+                        .amount(5)
+                        .build(),
+                ProductRequest.builder()
+                        .name("test")
+                        .price(BigDecimal.TWO)
+                        .amount(3)
+                        .build()
+        );
 
+        mvc.perform(post("/api/products/bulk")
+                    .contentType("application/json")
+                    .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].status").value("INVALID"))
+                .andExpect(jsonPath("$.results[2].status").value("CONFLICT"));
+    }
+
+    @Test
+    void shouldCreateProductsInBulkFromNdjson() throws Exception {
+        String body = objectMapper.writeValueAsString(ProductRequest.builder()
+                .name("test")
+                .price(BigDecimal.TEN)
+                .category(Category.SMARTPHONES)
+                .amount(5)
+                .build()) + "\n" + objectMapper.writeValueAsString(ProductRequest.builder()
+                .name("test2")
+                .price(BigDecimal.TWO)
+                .category(Category.TV)
+                .amount(3)
+                .build()) + "\n";
+
+        mvc.perform(post("/api/products/bulk")
+                    .contentType("application/x-ndjson")
+                    .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.results[1].id").isNumber());
+    }
+
+    @Test
+    void shouldReportItemsWrittenBeforeMalformedNdjson() throws Exception {
+        String body = objectMapper.writeValueAsString(ProductRequest.builder()
+                .name("test")
+                .price(BigDecimal.TEN)
+                .category(Category.SMARTPHONES)
+                .amount(5)
+                .build()) + "\n{\"name\": \n" + objectMapper.writeValueAsString(ProductRequest.builder()
+                .name("test2")
+                .price(BigDecimal.TWO)
+                .category(Category.TV)
+                .amount(3)
+                .build()) + "\n";
+
+        mvc.perform(post("/api/products/bulk")
+                    .contentType("application/x-ndjson")
+                    .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].status").value("INVALID"));
+    }
+
+    @Test
+    void shouldRejectPriceBeyondColumnPrecisionInBulk() throws Exception {
+        String body = objectMapper.writeValueAsString(List.of(ProductRequest.builder()
+                .name("test")
+                .price(new BigDecimal("123456789.999"))
+                .category(Category.SMARTPHONES)
+                .amount(5)
+                .build()));
+
+        mvc.perform(post("/api/products/bulk")
+                    .contentType("application/json")
+                    .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(0))
+                .andExpect(jsonPath("$.results[0].status").value("INVALID"))
+                .andExpect(jsonPath("$.results[0].errors.price").exists());
+    }
+
+    @Test
+    void shouldReserveStockUntilExhausted() throws Exception {
+        ProductResponse product = service.createProduct(ProductRequest.builder()
+                .name("test")
+                .description("test-desc")
+                .price(BigDecimal.TEN)
+                .category(Category.SMARTPHONES)
+                .amount(5)
+                .build());
+        String request = objectMapper.writeValueAsString(new StockRequest(3));
+
+        mvc.perform(post("/api/products/" + product.id() + "/stock/reserve")
+                    .contentType("application/json")
+                    .content(request))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(3));
+
+        mvc.perform(post("/api/products/" + product.id() + "/stock/reserve")
+                    .contentType("application/json")
+                    .content(request))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenETagMatches() throws Exception {
+        ProductResponse product = service.createProduct(ProductRequest.builder()
+                .name("test")
+                .price(BigDecimal.TEN)
+                .category(Category.SMARTPHONES)
+                .amount(5)
+                .build());
+
+        String eTag = mvc.perform(get("/api/products/" + product.id()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/api/products/" + product.id())
+                    .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldRejectUpdateWithStaleETag() throws Exception {
+        ProductResponse product = service.createProduct(ProductRequest.builder()
+                .name("test")
+                .price(BigDecimal.TEN)
+                .category(Category.SMARTPHONES)
+                .amount(5)
+                .build());
+        String eTag = "\"" + product.version() + "\"";
+        ProductRequest update = ProductRequest.builder()
+                .name("test-updated")
+                .price(BigDecimal.ONE)
+                .category(Category.SMARTPHONES)
+                .amount(3)
+                .build();
+
+        mvc.perform(put("/api/products/" + product.id())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType("application/json")
+                    .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("test-updated"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (product.version() + 1) + "\""));
+
+        mvc.perform(put("/api/products/" + product.id())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType("application/json")
+                    .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    private String filteredPageETag(Category category, String maxPrice) throws Exception {
+        return mvc.perform(get("/api/products/")
+                        .param("category", category.name())
+                        .param("maxPrice", maxPrice))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
 }
@@ -0,0 +1,92 @@
+package org.example.productservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.show-sql=false"
+)
+@Import(TestcontainersConfiguration.class)
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ProductExportBenchmarkTests {
+
+    private static final int ROWS = 1_000_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        BenchmarkCatalog.of(ROWS)
+                .description("repeat('description ', 20)")
+                .category("'LAPTOPS'")
+                .seed(jdbcTemplate);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        BenchmarkCatalog.truncate(jdbcTemplate);
+    }
+
+    @Test
+    void shouldExportMillionProductsWithConstantMemory() throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products/export"))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        long lines = 0;
+        long peakHeap = 0;
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            assertThat(response.statusCode()).isEqualTo(200);
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isEmpty()) {
+                        lines++;
+                    }
+                    if (lines % 50_000 == 0) {
+                        peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+                    }
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertThat(lines).isEqualTo(ROWS);
+        log.info(String.format("exported %d rows in %.1f s (%.0f rows/s), max heap %d MB, peak used heap %d MB",
+                lines, seconds, lines / seconds,
+                Runtime.getRuntime().maxMemory() / (1024 * 1024), peakHeap / (1024 * 1024)));
+    }
+}
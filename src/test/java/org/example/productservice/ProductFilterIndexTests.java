@@ -0,0 +1,75 @@
+package org.example.productservice;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ProductFilterIndexTests {
+
+    private static final int ROWS = 200_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        // 1% LAPTOPS, prices spread over 10000 values, 2% in stock
+        jdbcTemplate.update("""
+                INSERT INTO product (id, name, description, price, category, amount)
+                SELECT g, 'product-' || g, NULL, 1 + g % 10000,
+                       CASE WHEN g % 100 = 0 THEN 'LAPTOPS' ELSE 'TV' END,
+                       CASE WHEN g % 50 = 0 THEN 5 ELSE 0 END
+                FROM generate_series(1, ?) AS g
+                """, ROWS);
+        jdbcTemplate.execute("ANALYZE product");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE product");
+    }
+
+    // Price-only filters rely on the B-tree skip scan of PostgreSQL 18 over the leading category column
+    static Stream<Arguments> filters() {
+        return Stream.of(
+                Arguments.of("category", "category = 'LAPTOPS'"),
+                Arguments.of("category and price", "category = 'TV' AND price BETWEEN 100 AND 110"),
+                Arguments.of("price", "price BETWEEN 100 AND 110"),
+                Arguments.of("in stock", "amount > 0"),
+                Arguments.of("name prefix", "name LIKE 'product-1234%'"),
+                Arguments.of("category and in stock", "category = 'LAPTOPS' AND amount > 0"),
+                Arguments.of("price and in stock", "price BETWEEN 100 AND 110 AND amount > 0"),
+                Arguments.of("category and name prefix", "category = 'TV' AND name LIKE 'product-1234%'"),
+                Arguments.of("all filters", "category = 'TV' AND price BETWEEN 100 AND 5000 AND amount > 0 " +
+                        "AND name LIKE 'product-1234%'")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filters")
+    void filteredPageAndCountShouldUseIndex(String description, String predicate) {
+        String page = explain("SELECT * FROM product WHERE " + predicate + " ORDER BY id LIMIT 10 OFFSET 100");
+        String count = explain("SELECT count(*) FROM product WHERE " + predicate);
+
+        assertThat(page).as(page).contains("Index").doesNotContain("Seq Scan");
+        assertThat(count).as(count).contains("idx_product_").doesNotContain("Seq Scan");
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
@@ -0,0 +1,233 @@
+package org.example.productservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.example.productservice.dto.ProductCursor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Constant-rate (open model) load: latency is measured from the intended send time, so a slow service cannot
+// hide its queueing delay. Tune with e.g. mvn -Pbenchmark test -Dtest=ProductLoadTests -Dload.rate=2000
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(TestcontainersConfiguration.class)
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ProductLoadTests {
+
+    private static final int CATALOG_SIZE = Integer.getInteger("load.catalog-size", 100_000);
+    private static final int RATE = Integer.getInteger("load.rate", 500);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private static final Path OUTPUT_DIR = Path.of(System.getProperty("load.output-dir", "target/load"));
+    private static final long HIGHEST_TRACKABLE_LATENCY = TimeUnit.SECONDS.toNanos(60);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private HttpClient client;
+    private final AtomicLong createdProducts = new AtomicLong();
+
+    @BeforeAll
+    void seed() {
+        BenchmarkCatalog.of(CATALOG_SIZE)
+                .description("'A wireless device number ' || g")
+                .category(BenchmarkCatalog.ANY_CATEGORY)
+                .amount("1000000")
+                .seed(jdbcTemplate);
+        client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        client.close();
+        BenchmarkCatalog.truncate(jdbcTemplate);
+    }
+
+    @Test
+    void mixedWorkload() throws Exception {
+        List<Operation> operations = List.of(
+                new Operation("get-by-id", 60, random -> get("/api/products/" + randomId(random))),
+                new Operation("keyset-page", 15, random -> get("/api/products/?size=20&after="
+                        + new ProductCursor(randomId(random)).encode())),
+                new Operation("filtered-page", 10, random -> get("/api/products/?size=20&inStock=true&category=TV"
+                        + "&minPrice=" + random.nextInt(900) + "&maxPrice=1000")),
+                new Operation("reserve-stock", 10, random -> post(
+                        "/api/products/" + randomId(random) + "/stock/reserve", "{\"quantity\":1}")),
+                new Operation("create", 5, random -> post("/api/products/", """
+                        {"name":"load-%d","price":10.00,"category":"TV","amount":100}
+                        """.formatted(createdProducts.incrementAndGet())))
+        );
+
+        run(operations, WARMUP, null);
+
+        Files.createDirectories(OUTPUT_DIR);
+        Path logFile = OUTPUT_DIR.resolve("product-load-" + System.currentTimeMillis() + ".hlog");
+        try (PrintStream histogramLog = new PrintStream(Files.newOutputStream(logFile))) {
+            HistogramLogWriter writer = new HistogramLogWriter(histogramLog);
+            writer.outputComment("catalog=" + CATALOG_SIZE + " rate=" + RATE + "/s duration=" + DURATION);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(System.currentTimeMillis());
+            writer.setBaseTime(System.currentTimeMillis());
+            writer.outputLegend();
+
+            Map<String, Histogram> totals = run(operations, DURATION, writer);
+            report(totals);
+        }
+        log.info("Histogram log written to {}", logFile.toAbsolutePath());
+        assertThat(operations).allSatisfy(operation -> assertThat(operation.errors()).hasValue(0));
+    }
+
+    private Map<String, Histogram> run(List<Operation> operations, Duration duration, HistogramLogWriter writer)
+            throws InterruptedException {
+        Map<String, Histogram> totals = new LinkedHashMap<>();
+        for (Operation operation : operations) {
+            operation.recorder().reset();
+            operation.errors().set(0);
+            totals.put(operation.name(), new Histogram(HIGHEST_TRACKABLE_LATENCY, 3));
+        }
+        int totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long requests = duration.toSeconds() * RATE;
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            long nextFlush = start + TimeUnit.SECONDS.toNanos(1);
+            for (long i = 0; i < requests; i++) {
+                long intendedStart = start + i * intervalNanos;
+                LockSupport.parkNanos(intendedStart - System.nanoTime());
+                if (System.nanoTime() >= nextFlush) {
+                    flush(operations, totals, writer);
+                    nextFlush += TimeUnit.SECONDS.toNanos(1);
+                }
+                Operation operation = pick(operations, totalWeight);
+                workers.execute(() -> operation.execute(intendedStart));
+            }
+        }
+        flush(operations, totals, writer);
+        return totals;
+    }
+
+    private void flush(List<Operation> operations, Map<String, Histogram> totals, HistogramLogWriter writer) {
+        for (Operation operation : operations) {
+            Histogram interval = operation.recorder().getIntervalHistogram();
+            totals.get(operation.name()).add(interval);
+            if (writer != null) {
+                interval.setTag(operation.name());
+                writer.outputIntervalHistogram(interval);
+            }
+        }
+    }
+
+    private void report(Map<String, Histogram> totals) {
+        log.info(String.format("%-28s %10s %10s %10s %10s %10s",
+                "endpoint", "req/s", "p50 (ms)", "p99 (ms)", "p999 (ms)", "max (ms)"));
+        totals.forEach((name, histogram) -> log.info(String.format("%-28s %10.1f %10.2f %10.2f %10.2f %10.2f",
+                name,
+                histogram.getTotalCount() / (double) DURATION.toSeconds(),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()))));
+    }
+
+    private Operation pick(List<Operation> operations, int totalWeight) {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private long randomId(ThreadLocalRandom random) {
+        return 1 + random.nextInt(CATALOG_SIZE);
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(uri(path)).GET().build());
+    }
+
+    private int post(String path, String body) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        int send(ThreadLocalRandom random) throws IOException, InterruptedException;
+    }
+
+    private record Operation(String name, int weight, Call call, Recorder recorder, AtomicLong errors) {
+
+        Operation(String name, int weight, Call call) {
+            this(name, weight, call, new Recorder(HIGHEST_TRACKABLE_LATENCY, 3), new AtomicLong());
+        }
+
+        void execute(long intendedStart) {
+            try {
+                int status = call.send(ThreadLocalRandom.current());
+                if (status >= 500) {
+                    errors.incrementAndGet();
+                }
+            } catch (IOException | InterruptedException e) {
+                errors.incrementAndGet();
+            } finally {
+                recorder.recordValue(Math.min(System.nanoTime() - intendedStart, HIGHEST_TRACKABLE_LATENCY));
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.productservice;
+
+import com.sun.management.OperatingSystemMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Process CPU time per request for the hot unfiltered catalog pages with and without the response cache.
+// Client and server share the JVM, so the client's share is the same constant in both runs.
+@Slf4j
+@Tag("benchmark")
+public class ProductPageCacheBenchmarkTests {
+
+    private static final int CATALOG_SIZE = Integer.getInteger("load.catalog-size", 100_000);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 50_000);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 16);
+
+    private final OperatingSystemMXBean os = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
+
+    @Test
+    void compareCpuPerRequest() throws Exception {
+        Result uncached = run("no page cache", "--product-service.page-cache.enabled=false");
+        Result cached = run("page cache", "--product-service.page-cache.enabled=true");
+
+        log.info(String.format("%-16s %12s %14s %12s", "mode", "req/s", "CPU us/req", "errors"));
+        uncached.print();
+        cached.print();
+
+        assertThat(uncached.errors).hasValue(0);
+        assertThat(cached.errors).hasValue(0);
+    }
+
+    private Result run(String mode, String pageCache) throws Exception {
+        try (ConfigurableApplicationContext context = SpringApplication.from(ProductServiceApplication::main)
+                .with(TestcontainersConfiguration.class)
+                .run(pageCache, "--server.port=0", "--product-service.outbox.relay-enabled=false",
+                        "--product-service.admission.enabled=false",
+                        "--product-service.concurrency-limit.enabled=false")
+                .getApplicationContext();
+             HttpClient client = HttpClient.newBuilder()
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            BenchmarkCatalog.of(CATALOG_SIZE)
+                    .category(BenchmarkCatalog.ANY_CATEGORY)
+                    .amount("g % 10")
+                    .seed(context.getBean(JdbcTemplate.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            drive(client, port, new Result(mode), REQUESTS / 5);
+            Result result = new Result(mode);
+            drive(client, port, result, REQUESTS);
+            return result;
+        }
+    }
+
+    private void drive(HttpClient client, int port, Result result, int requests) {
+        AtomicLong remaining = new AtomicLong(requests);
+        long cpuStart = os.getProcessCpuTime();
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.execute(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        URI uri = URI.create("http://localhost:" + port + "/api/products/?size=10&page="
+                                + ThreadLocalRandom.current().nextInt(3));
+                        result.record(client, uri);
+                    }
+                });
+            }
+        }
+        result.requests = requests;
+        result.cpuNanos = os.getProcessCpuTime() - cpuStart;
+        result.wallNanos = System.nanoTime() - start;
+    }
+
+    private static final class Result {
+
+        private final String mode;
+        private final AtomicLong errors = new AtomicLong();
+        private int requests;
+        private long cpuNanos;
+        private long wallNanos;
+
+        private Result(String mode) {
+            this.mode = mode;
+        }
+
+        void record(HttpClient client, URI uri) {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .header("Accept-Encoding", "gzip")
+                        .GET()
+                        .build();
+                if (client.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode() != 200) {
+                    errors.incrementAndGet();
+                }
+            } catch (IOException | InterruptedException e) {
+                errors.incrementAndGet();
+            }
+        }
+
+        void print() {
+            log.info(String.format("%-16s %12.1f %14.1f %12d",
+                    mode,
+                    requests / (wallNanos / 1_000_000_000.0),
+                    cpuNanos / 1_000.0 / requests,
+                    errors.get()));
+        }
+    }
+}
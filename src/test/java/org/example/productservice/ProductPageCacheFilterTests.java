@@ -0,0 +1,187 @@
+package org.example.productservice;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.productservice.config.ProductPageCacheProperties;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.service.event.ProductChangedEvent;
+import org.example.productservice.web.ProductPageCacheFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProductPageCacheFilterTests {
+
+    private static final String BODY = "{\"content\":[{\"id\":1,\"name\":\"tv\"}],\"page\":{\"size\":10,\"number\":0}}";
+
+    private ProductPageCacheFilter filter = filter(Duration.ofSeconds(5));
+
+    private final AtomicInteger rendered = new AtomicInteger();
+
+    @Test
+    void doFilter_forHotPage_shouldServeRepeatedRequestFromCache() throws Exception {
+        MockHttpServletResponse first = get(page("0", "10"));
+        MockHttpServletResponse second = get(page("0", "10"));
+
+        assertThat(rendered).hasValue(1);
+        assertThat(first.getContentAsString()).isEqualTo(BODY);
+        assertThat(second.getContentAsString()).isEqualTo(BODY);
+        assertThat(second.getContentType()).isEqualTo("application/json");
+        assertThat(second.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(second.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=5, public");
+        assertThat(second.getContentLength()).isEqualTo(BODY.length());
+    }
+
+    @Test
+    void doFilter_whenClientAcceptsGzip_shouldServePrecompressedBody() throws Exception {
+        get(page("0", "10"));
+        MockHttpServletRequest request = page("0", "10");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8");
+
+        MockHttpServletResponse response = get(request);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(BODY);
+    }
+
+    @Test
+    void doFilter_whenETagMatches_shouldReturnNotModified() throws Exception {
+        get(page("0", "10"));
+        MockHttpServletRequest request = page("0", "10");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"abc\"");
+
+        MockHttpServletResponse response = get(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void onProductChanged_shouldInvalidateCachedPages() throws Exception {
+        get(page("0", "10"));
+
+        ProductResponse product = ProductResponse.builder().id(1L).build();
+        filter.onProductChanged(ProductChangedEvent.stockChanged(product, product));
+        get(page("0", "10"));
+
+        assertThat(rendered).hasValue(2);
+    }
+
+    @Test
+    void onProductChanged_forProductOnNoCachedPage_shouldKeepCachedPages() throws Exception {
+        get(page("0", "10"));
+
+        ProductResponse other = ProductResponse.builder().id(2L).build();
+        filter.onProductChanged(ProductChangedEvent.stockChanged(other, other));
+        get(page("0", "10"));
+
+        assertThat(rendered).hasValue(1);
+    }
+
+    @Test
+    void onProductChanged_forNewProduct_shouldInvalidateCachedPages() throws Exception {
+        get(page("0", "10"));
+
+        filter.onProductChanged(ProductChangedEvent.created(ProductResponse.builder().id(2L).build()));
+        get(page("0", "10"));
+
+        assertThat(rendered).hasValue(2);
+    }
+
+    @Test
+    void doFilter_whenPageChangesWhileRendering_shouldNotCacheIt() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(page("0", "10"), response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                rendered.incrementAndGet();
+                ProductResponse product = ProductResponse.builder().id(1L).build();
+                filter.onProductChanged(ProductChangedEvent.stockChanged(product, product));
+                resp.setContentType("application/json");
+                resp.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+        }));
+        get(page("0", "10"));
+
+        assertThat(rendered).hasValue(2);
+    }
+
+    @Test
+    void doFilter_whenCachedPageExpired_shouldRenderAgain() throws Exception {
+        filter = filter(Duration.ZERO);
+
+        get(page("0", "10"));
+        get(page("0", "10"));
+
+        assertThat(rendered).hasValue(2);
+    }
+
+    @Test
+    void doFilter_forFilteredOrColdPage_shouldBypassCache() throws Exception {
+        MockHttpServletRequest filtered = page("0", "10");
+        filtered.addParameter("category", "TV");
+
+        get(filtered);
+        get(filtered);
+        get(page("5", "10"));
+        get(page("0", "11"));
+
+        assertThat(rendered).hasValue(4);
+    }
+
+    @Test
+    void acceptsGzip_shouldHonourZeroQuality() {
+        assertThat(ProductPageCacheFilter.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(ProductPageCacheFilter.acceptsGzip("*")).isTrue();
+        assertThat(ProductPageCacheFilter.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ProductPageCacheFilter.acceptsGzip("identity")).isFalse();
+        assertThat(ProductPageCacheFilter.acceptsGzip(null)).isFalse();
+    }
+
+    private static ProductPageCacheFilter filter(Duration expireAfterWrite) {
+        return new ProductPageCacheFilter(new ProductPageCacheProperties(true, 2, Set.of(10), Duration.ofSeconds(5),
+                expireAfterWrite, 10), JsonMapper.builder().build(), new SimpleMeterRegistry());
+    }
+
+    private MockHttpServletResponse get(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                rendered.incrementAndGet();
+                resp.setContentType("application/json");
+                resp.setHeader(HttpHeaders.ETAG, "W/\"abc\"");
+                resp.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+        }));
+        return response;
+    }
+
+    private static MockHttpServletRequest page(String page, String size) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/");
+        request.addParameter("page", page);
+        request.addParameter("size", size);
+        return request;
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.productservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.dto.ProductCursor;
+import org.example.productservice.dto.ProductCursorPage;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.service.ProductService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ProductPaginationBenchmarkTests {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int DEEP_PAGE = 9_999;
+    private static final int ROWS = (DEEP_PAGE + 1) * PAGE_SIZE;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int ITERATIONS = 100;
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        BenchmarkCatalog.of(ROWS).seed(jdbcTemplate);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        BenchmarkCatalog.truncate(jdbcTemplate);
+    }
+
+    @Test
+    void compareOffsetAndKeysetPagination() {
+        Sort byId = Sort.by("id");
+        String deepCursor = new ProductCursor((long) DEEP_PAGE * PAGE_SIZE).encode();
+
+        Page<ProductResponse> offsetDeep = service.findPageOfProducts(PageRequest.of(DEEP_PAGE, PAGE_SIZE, byId));
+        ProductCursorPage keysetDeep = service.findPageOfProductsAfter(deepCursor, PAGE_SIZE);
+        assertThat(keysetDeep.content()).isEqualTo(offsetDeep.getContent());
+
+        double offsetFirst = measure(() -> service.findPageOfProducts(PageRequest.of(0, PAGE_SIZE, byId)));
+        double offsetLast = measure(() -> service.findPageOfProducts(PageRequest.of(DEEP_PAGE, PAGE_SIZE, byId)));
+        double keysetFirst = measure(() -> service.findPageOfProductsAfter("", PAGE_SIZE));
+        double keysetLast = measure(() -> service.findPageOfProductsAfter(deepCursor, PAGE_SIZE));
+
+        log.info(String.format("%-8s %14s %14s", "mode", "page 1 (us)", "page 10000 (us)"));
+        log.info(String.format("%-8s %14.1f %14.1f", "offset", offsetFirst, offsetLast));
+        log.info(String.format("%-8s %14.1f %14.1f", "keyset", keysetFirst, keysetLast));
+    }
+
+    private double measure(Supplier<?> call) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            call.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+}
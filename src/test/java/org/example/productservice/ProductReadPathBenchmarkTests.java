@@ -0,0 +1,111 @@
+package org.example.productservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.repository.ProductRepository;
+import org.example.productservice.service.mapper.ProductMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ProductReadPathBenchmarkTests {
+
+    private static final int ROWS = 10_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP_ITERATIONS = 500;
+    private static final int ITERATIONS = 2_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeAll
+    void seed() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        BenchmarkCatalog.of(ROWS).seed(jdbcTemplate);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        BenchmarkCatalog.truncate(jdbcTemplate);
+    }
+
+    @Test
+    void compareEntityAndProjectionReadPaths() {
+        Pageable page = PageRequest.of(10, PAGE_SIZE, Sort.by("id"));
+        long lastId = ROWS / 2;
+
+        List<ProductResponse> projected = readOnly.execute(status -> repository.findResponsePage(page).getContent());
+        List<ProductResponse> mapped = readOnly.execute(status -> repository.findAll(page)
+                .map(ProductMapper::toResponse)
+                .getContent());
+        assertThat(projected).isEqualTo(mapped);
+
+        log.info(String.format("%-22s %12s %14s", "path", "ops/s", "bytes/op"));
+        report("by id, entity", () -> repository.findById(lastId).map(ProductMapper::toResponse));
+        report("by id, projection", () -> repository.findResponseById(lastId));
+        report("page, entity", () -> readOnly.execute(status -> repository.findAll(page)
+                .map(ProductMapper::toResponse)));
+        report("page, projection", () -> readOnly.execute(status -> repository.findResponsePage(page)));
+        report("keyset, entity", () -> readOnly.execute(status -> entityKeyset(lastId)));
+        report("keyset, projection", () -> readOnly.execute(status ->
+                repository.findResponsesByIdGreaterThan(lastId, Limit.of(PAGE_SIZE))));
+    }
+
+    private List<ProductResponse> entityKeyset(long lastId) {
+        return repository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(PAGE_SIZE)).stream()
+                .map(ProductMapper::toResponse)
+                .toList();
+    }
+
+    private void report(String name, Supplier<?> call) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            call.get();
+        }
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        log.info(String.format("%-22s %12.0f %14d", name,
+                ITERATIONS / (elapsed / 1_000_000_000.0), allocated / ITERATIONS));
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.productservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.dto.ProductCursorPage;
+import org.example.productservice.model.enums.Category;
+import org.example.productservice.service.ProductService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ProductSearchBenchmarkTests {
+
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int ITERATIONS = 500;
+    private static final String VOCABULARY = """
+            (SELECT ARRAY['acme', 'nimbus', 'vertex', 'orion', 'zephyr', 'lumen', 'quasar', 'helix',
+                          'aurora', 'pulse', 'nova', 'atlas', 'ember', 'tidal', 'summit', 'cobalt',
+                          'falcon', 'granite', 'ion', 'juniper'] AS brand,
+                    ARRAY['phone', 'laptop', 'tablet', 'headphones', 'earbuds', 'speaker', 'monitor',
+                          'television', 'camera', 'watch', 'charger', 'keyboard', 'mouse', 'router',
+                          'projector', 'console', 'drone', 'microphone', 'soundbar', 'webcam',
+                          'printer', 'scanner', 'headset', 'dock', 'stylus'] AS noun,
+                    ARRAY['compact', 'wireless', 'portable', 'premium', 'rugged', 'slim', 'smart',
+                          'gaming', 'studio', 'outdoor', 'budget', 'professional', 'foldable',
+                          'waterproof', 'ultralight'] AS adjective,
+                    ARRAY['bluetooth', 'usb-c charging', 'noise cancelling', 'oled display',
+                          'fast charging', 'long battery life', 'wifi 6', 'voice control',
+                          'metal body', 'backlit keys', 'hdr support', 'dual cameras'] AS feature) AS vocabulary""";
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        BenchmarkCatalog.of(ROWS)
+                .name("brand[1 + g % 20] || ' ' || noun[1 + (g / 20) % 25] || ' ' || g")
+                .description("""
+                        'A ' || adjective[1 + g % 15] || ' ' || noun[1 + (g / 7) % 25] || ' with '
+                            || feature[1 + g % 12] || ' and ' || feature[1 + (g / 12) % 12]""")
+                .category(BenchmarkCatalog.ANY_CATEGORY)
+                .from(VOCABULARY)
+                .seed(jdbcTemplate);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        BenchmarkCatalog.truncate(jdbcTemplate);
+    }
+
+    @Test
+    void measureSearchLatency() {
+        String secondPage = service.searchProducts("wireless headphones", null, null, PAGE_SIZE).next();
+        assertThat(secondPage).isNotNull();
+
+        log.info(String.format("%-32s %10s %10s %10s", "query", "p50 (us)", "p99 (us)", "max (us)"));
+        report("rare brand + number", () -> service.searchProducts("nimbus 123461", null, null, PAGE_SIZE));
+        report("brand + noun", () -> service.searchProducts("nimbus phone", null, null, PAGE_SIZE));
+        report("two common words", () -> service.searchProducts("wireless headphones", null, null, PAGE_SIZE));
+        report("two common words, 2nd page",
+                () -> service.searchProducts("wireless headphones", null, secondPage, PAGE_SIZE));
+        report("phrase", () -> service.searchProducts("\"noise cancelling\"", null, null, PAGE_SIZE));
+        report("common word + category",
+                () -> service.searchProducts("bluetooth", Category.HEADPHONES, null, PAGE_SIZE));
+        report("word with exclusion", () -> service.searchProducts("laptop -gaming", null, null, PAGE_SIZE));
+    }
+
+    private void report(String name, Supplier<ProductCursorPage> call) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            call.get();
+        }
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            call.get();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        log.info(String.format("%-32s %10.1f %10.1f %10.1f", name,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[ITERATIONS - 1] / 1_000.0));
+    }
+
+    private double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000.0;
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.productservice;
+
+import org.example.productservice.exception.ProductNotFoundException;
+import org.example.productservice.exception.ServiceUnavailableException;
+import org.example.productservice.service.cache.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTests {
+
+    private static final int CALLERS = 200;
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SingleFlight<Long, String> flights = new SingleFlight<>();
+
+    @Test
+    void execute_withConcurrentBurst_shouldLoadOncePerKey() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> flights.execute(1L, id -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "product-" + id;
+                }, TIMEOUT)));
+            }
+            awaitWaiters(CALLERS - 1);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("product-1");
+            }
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void execute_whenLoaderFails_shouldPropagateSameExceptionToWaiters() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ProductNotFoundException failure = new ProductNotFoundException(1L);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> flights.execute(1L, id -> {
+                started.countDown();
+                await(release);
+                throw failure;
+            }, TIMEOUT));
+            started.await();
+            Future<String> waiter = executor.submit(() -> flights.execute(1L, id -> "unused", TIMEOUT));
+            awaitWaiters(1);
+            release.countDown();
+
+            assertThatThrownBy(leader::get).hasCause(failure);
+            assertThatThrownBy(waiter::get).hasCause(failure);
+        }
+        // the failed flight is gone, the next caller loads again
+        assertThat(flights.execute(1L, id -> "reloaded", TIMEOUT)).isEqualTo("reloaded");
+    }
+
+    @Test
+    void execute_whenLeaderIsSlow_shouldTimeOutWaiter() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> flights.execute(1L, id -> {
+                started.countDown();
+                await(release);
+                return "slow";
+            }, TIMEOUT));
+            started.await();
+
+            assertThatThrownBy(() -> flights.execute(1L, id -> "unused", Duration.ofMillis(50)))
+                    .isInstanceOf(ServiceUnavailableException.class)
+                    .hasMessageContaining("did not finish");
+
+            release.countDown();
+            assertThat(leader.get()).isEqualTo("slow");
+        }
+    }
+
+    @Test
+    void execute_forDifferentKeys_shouldNotShareFlights() {
+        assertThat(flights.execute(1L, id -> "a", TIMEOUT)).isEqualTo("a");
+        assertThat(flights.execute(2L, id -> "b", TIMEOUT)).isEqualTo("b");
+        assertThat(flights.coalesced()).isZero();
+    }
+
+    private void awaitWaiters(int waiters) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (flights.coalesced() < waiters && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.productservice;
+
+import org.example.productservice.metrics.CountingDataSource;
+import org.example.productservice.metrics.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SqlStatementCounterTests {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    private CountingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new CountingDataSource(target);
+    }
+
+    @Test
+    void countingDataSource_shouldCountPreparedAndPlainStatementsInNestedScopes() throws SQLException {
+        when(connection.createStatement()).thenReturn(statement);
+
+        try (SqlStatementCounter.Scope request = SqlStatementCounter.open(1)) {
+            try (Connection counted = dataSource.getConnection()) {
+                counted.prepareStatement("select 1");
+                try (SqlStatementCounter.Scope call = SqlStatementCounter.open()) {
+                    counted.createStatement().executeQuery("select 2");
+                    assertThat(call.count()).isEqualTo(1);
+                }
+            }
+
+            assertThat(request.count()).isEqualTo(2);
+            assertThat(request.captured()).containsExactly("select 1");
+        }
+    }
+
+    @Test
+    void attach_shouldCountStatementsRunOnAnotherThread() throws Exception {
+        try (SqlStatementCounter.Scope request = SqlStatementCounter.open()) {
+            CompletableFuture.runAsync(() -> {
+                SqlStatementCounter.attach(request);
+                try (Connection counted = dataSource.getConnection()) {
+                    counted.prepareStatement("select 1");
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    SqlStatementCounter.detach();
+                }
+            }).get();
+
+            assertThat(request.count()).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.productservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.dto.ProductRequest;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.exception.InsufficientStockException;
+import org.example.productservice.model.enums.Category;
+import org.example.productservice.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "product-service.stock.coalescing.enabled=true",
+        "product-service.stock.coalescing.categories=TV"
+})
+@Import(TestcontainersConfiguration.class)
+@Tag("benchmark")
+public class StockCoalescingBenchmarkTests {
+
+    private static final int STOCK = 20_000;
+    private static final int THREADS = 64;
+    private static final int RESERVATIONS_PER_THREAD = 400;
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        BenchmarkCatalog.truncate(jdbcTemplate);
+    }
+
+    @Test
+    void compareDirectAndCoalescedReservations() throws Exception {
+        ProductResponse direct = createHotProduct("direct", Category.SMARTPHONES);
+        ProductResponse coalesced = createHotProduct("coalesced", Category.TV);
+
+        double directOps = run(direct);
+        double coalescedOps = run(coalesced);
+
+        log.info(String.format("%-10s %12s", "path", "ops/s"));
+        log.info(String.format("%-10s %12.0f", "direct", directOps));
+        log.info(String.format("%-10s %12.0f", "coalesced", coalescedOps));
+    }
+
+    private ProductResponse createHotProduct(String name, Category category) {
+        return service.createProduct(ProductRequest.builder()
+                .name(name)
+                .price(BigDecimal.TEN)
+                .category(category)
+                .amount(STOCK)
+                .build());
+    }
+
+    private double run(ProductResponse product) throws Exception {
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        long startedAt;
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < RESERVATIONS_PER_THREAD; j++) {
+                        try {
+                            service.reserveStock(product.id(), 1);
+                            reserved.incrementAndGet();
+                        } catch (InsufficientStockException ignored) {
+                        }
+                    }
+                    return null;
+                }));
+            }
+            startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        Integer amount = jdbcTemplate.queryForObject(
+                "SELECT amount FROM product WHERE id = ?", Integer.class, product.id());
+        assertThat(reserved.get()).isEqualTo(STOCK);
+        assertThat(amount).isZero();
+        return THREADS * RESERVATIONS_PER_THREAD / seconds;
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.productservice;
+
+import org.example.productservice.config.StockCoalescingProperties;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.dto.StockChange;
+import org.example.productservice.exception.InsufficientStockException;
+import org.example.productservice.exception.ServiceUnavailableException;
+import org.example.productservice.model.enums.Category;
+import org.example.productservice.model.enums.ProductEventType;
+import org.example.productservice.outbox.OutboxWriter;
+import org.example.productservice.repository.ProductBatchRepository.AppliedUpdate;
+import org.example.productservice.repository.ProductRepository;
+import org.example.productservice.service.stock.StockDecrementCoalescer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockDecrementCoalescerTests {
+
+    @Mock
+    private ProductRepository repository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private StockDecrementCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new StockDecrementCoalescer(repository, transactionTemplate, outboxWriter, eventPublisher,
+                new StockCoalescingProperties(true, Duration.ofMillis(50), Duration.ofSeconds(5),
+                        Set.of(Category.TV), Set.of(7L)));
+    }
+
+    @Test
+    void isEnabledFor_shouldMatchConfiguredIdsAndCategories() {
+        when(repository.findCategoryById(1L)).thenReturn(Optional.of(Category.TV));
+        when(repository.findCategoryById(2L)).thenReturn(Optional.of(Category.LAPTOPS));
+
+        assertThat(coalescer.isEnabledFor(7L)).isTrue();
+        assertThat(coalescer.isEnabledFor(1L)).isTrue();
+        assertThat(coalescer.isEnabledFor(1L)).isTrue();
+        assertThat(coalescer.isEnabledFor(2L)).isFalse();
+        verify(repository, times(1)).findCategoryById(1L);
+    }
+
+    @Test
+    void reserve_withConcurrentCallers_shouldFlushWindowAsSingleUpdate() throws Exception {
+        runTransactionsInline();
+        when(repository.reserveStock(1L, 10)).thenReturn(Optional.of(stockUpdate(20, 10)));
+
+        List<Future<?>> callers = reserveConcurrently(List.of(1, 2, 3, 4));
+        for (Future<?> caller : callers) {
+            caller.get();
+        }
+
+        verify(repository, times(1)).reserveStock(1L, 10);
+        verify(outboxWriter, times(1)).append(ProductEventType.STOCK_CHANGED, 1L, new StockChange(1L, -10));
+    }
+
+    @Test
+    void reserve_whenWindowExceedsStock_shouldGrantCallersUntilStockRunsOut() throws Exception {
+        runTransactionsInline();
+        when(repository.reserveStock(1L, 15)).thenReturn(Optional.empty());
+        when(repository.findAmountForUpdate(1L)).thenReturn(Optional.of(5));
+        when(repository.reserveStock(1L, 5)).thenReturn(Optional.of(stockUpdate(5, 0)));
+
+        List<Future<?>> callers = reserveConcurrently(List.of(5, 5, 5));
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<?> caller : callers) {
+            try {
+                caller.get();
+            } catch (Exception e) {
+                failures.add(e.getCause());
+            }
+        }
+
+        assertThat(failures).hasSize(2)
+                .allMatch(failure -> failure instanceof InsufficientStockException);
+        verify(repository, times(1)).reserveStock(1L, 5);
+        verify(outboxWriter, times(1)).append(ProductEventType.STOCK_CHANGED, 1L, new StockChange(1L, -5));
+    }
+
+    @Test
+    void reserve_whenFlushFails_shouldPropagateErrorToEveryCaller() {
+        when(transactionTemplate.execute(any())).thenThrow(new IllegalStateException("database unavailable"));
+
+        assertThatThrownBy(() -> coalescer.reserve(1L, 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("database unavailable");
+    }
+
+    @Test
+    void reserve_whenCallerTimesOutBeforeFlush_shouldWithdrawReservation() {
+        StockDecrementCoalescer slowCoalescer = new StockDecrementCoalescer(repository, transactionTemplate,
+                outboxWriter, eventPublisher, new StockCoalescingProperties(true, Duration.ofMillis(200),
+                Duration.ofMillis(20), Set.of(), Set.of()));
+
+        assertThatThrownBy(() -> slowCoalescer.reserve(1L, 1))
+                .isInstanceOf(ServiceUnavailableException.class);
+        verify(transactionTemplate, after(500).never()).execute(any());
+        verifyNoInteractions(repository, outboxWriter);
+    }
+
+    private List<Future<?>> reserveConcurrently(List<Integer> quantities) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> callers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int quantity : quantities) {
+                callers.add(executor.submit(() -> {
+                    start.await();
+                    coalescer.reserve(1L, quantity);
+                    return null;
+                }));
+            }
+            // every caller joins the window opened by the first one well before the 50ms flush
+            start.countDown();
+        }
+        return callers;
+    }
+
+    private static AppliedUpdate stockUpdate(int amountBefore, int amountAfter) {
+        ProductResponse previous = ProductResponse.builder().id(1L).amount(amountBefore).version(0L).build();
+        ProductResponse product = ProductResponse.builder().id(1L).amount(amountAfter).version(1L).build();
+        return new AppliedUpdate(previous, product);
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.productservice;
+
+import org.example.productservice.dto.ProductRequest;
+import org.example.productservice.dto.ProductResponse;
+import org.example.productservice.exception.InsufficientStockException;
+import org.example.productservice.model.enums.Category;
+import org.example.productservice.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Single-row throughput is measured by the direct path of StockCoalescingBenchmarkTests
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@Import(TestcontainersConfiguration.class)
+public class StockReservationConcurrencyTests {
+
+    private static final int STOCK = 1_000;
+    private static final int THREADS = 16;
+    private static final int RESERVATIONS_PER_THREAD = 100;
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE product, outbox_event");
+    }
+
+    @Test
+    void shouldNeverOversellHotProduct() throws Exception {
+        ProductResponse product = service.createProduct(ProductRequest.builder()
+                .name("hot")
+                .price(BigDecimal.TEN)
+                .category(Category.SMARTPHONES)
+                .amount(STOCK)
+                .build());
+
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < RESERVATIONS_PER_THREAD; j++) {
+                        try {
+                            service.reserveStock(product.id(), 1);
+                            reserved.incrementAndGet();
+                        } catch (InsufficientStockException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+
+        Integer amount = jdbcTemplate.queryForObject(
+                "SELECT amount FROM product WHERE id = ?", Integer.class, product.id());
+        assertThat(reserved.get()).isEqualTo(STOCK);
+        assertThat(rejected.get()).isEqualTo(THREADS * RESERVATIONS_PER_THREAD - STOCK);
+        assertThat(amount).isZero();
+    }
+}